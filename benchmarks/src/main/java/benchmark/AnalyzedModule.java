@@ -0,0 +1,80 @@
+package benchmark;
+
+import annotations.AutoBuilder;
+import com.sun.source.util.JavacTask;
+
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public class AnalyzedModule implements RoundEnvironment {
+    private final JavacTask task;
+    private final Set<Element> annotatedConstructors;
+
+    private AnalyzedModule(JavacTask task, Set<Element> annotatedConstructors) {
+        this.task = task;
+        this.annotatedConstructors = annotatedConstructors;
+    }
+
+    public static AnalyzedModule analyze(List<JavaFileObject> sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        var fileManager = compiler.getStandardFileManager(null, null, null);
+        var task = (JavacTask) compiler.getTask(null, fileManager, null, List.of("-proc:none"), null, sources);
+        Set<Element> annotatedConstructors = new LinkedHashSet<>();
+        try {
+            for (Element element : task.analyze()) {
+                for (Element constructor : ElementFilter.constructorsIn(element.getEnclosedElements())) {
+                    if (constructor.getAnnotation(AutoBuilder.class) != null) {
+                        annotatedConstructors.add(constructor);
+                    }
+                }
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return new AnalyzedModule(task, annotatedConstructors);
+    }
+
+    public JavacTask task() {
+        return task;
+    }
+
+    public Set<Element> annotatedConstructors() {
+        return annotatedConstructors;
+    }
+
+    @Override
+    public boolean processingOver() {
+        return false;
+    }
+
+    @Override
+    public boolean errorRaised() {
+        return false;
+    }
+
+    @Override
+    public Set<? extends Element> getRootElements() {
+        return Set.of();
+    }
+
+    @Override
+    public Set<? extends Element> getElementsAnnotatedWith(TypeElement annotation) {
+        return annotation.getQualifiedName().contentEquals(AutoBuilder.class.getCanonicalName()) ? annotatedConstructors : Set.of();
+    }
+
+    @Override
+    public Set<? extends Element> getElementsAnnotatedWith(Class<? extends Annotation> annotation) {
+        return annotation == AutoBuilder.class ? annotatedConstructors : Set.of();
+    }
+}
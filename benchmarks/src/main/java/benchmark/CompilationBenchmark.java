@@ -0,0 +1,84 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import processor.MainProcessor;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class CompilationBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int count;
+
+    @Param({"true", "false"})
+    public boolean processor;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    @Param({"source", "bytecode"})
+    public String emit;
+
+    private List<JavaFileObject> sources;
+    private Path outputDirectory;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        sources = SyntheticSources.generate(count);
+    }
+
+    @Setup(Level.Iteration)
+    public void createOutput() throws IOException {
+        outputDirectory = Files.createTempDirectory("autobuilder-bench");
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteOutput() throws IOException {
+        try (Stream<Path> paths = Files.walk(outputDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public boolean compile(HeapCounters heap) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (var fileManager = compiler.getStandardFileManager(null, null, null)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, List.of(outputDirectory.toFile()));
+            fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, List.of(outputDirectory.toFile()));
+            List<String> options = new ArrayList<>();
+            options.add("-Aautobuilder.threads=" + threads);
+            options.add("-Aautobuilder.emit=" + emit);
+            var task = compiler.getTask(null, fileManager, null, options, null, sources);
+            task.setProcessors(processor ? List.of(new MainProcessor()) : List.of());
+            return task.call();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package benchmark;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.URI;
+
+public class CountingFiler implements Filer {
+    private long files;
+    private long characters;
+
+    public long files() {
+        return files;
+    }
+
+    public long characters() {
+        return characters;
+    }
+
+    public void reset() {
+        files = 0;
+        characters = 0;
+    }
+
+    @Override
+    public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements) {
+        files++;
+        return new SimpleJavaFileObject(URI.create("mem:///" + name.toString().replace('.', '/') + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public Writer openWriter() {
+                return new CountingWriter();
+            }
+        };
+    }
+
+    @Override
+    public JavaFileObject createClassFile(CharSequence name, Element... originatingElements) {
+        files++;
+        return new SimpleJavaFileObject(URI.create("mem:///" + name.toString().replace('.', '/') + JavaFileObject.Kind.CLASS.extension), JavaFileObject.Kind.CLASS) {
+            @Override
+            public OutputStream openOutputStream() {
+                return new CountingOutputStream();
+            }
+        };
+    }
+
+    @Override
+    public FileObject createResource(JavaFileManager.Location location, CharSequence moduleAndPkg, CharSequence relativeName, Element... originatingElements) {
+        files++;
+        return new SimpleJavaFileObject(URI.create("mem:///" + relativeName), JavaFileObject.Kind.OTHER) {
+            @Override
+            public Writer openWriter() {
+                return new CountingWriter();
+            }
+
+            @Override
+            public OutputStream openOutputStream() {
+                return new CountingOutputStream();
+            }
+        };
+    }
+
+    @Override
+    public FileObject getResource(JavaFileManager.Location location, CharSequence moduleAndPkg, CharSequence relativeName) {
+        throw new UnsupportedOperationException();
+    }
+
+    private class CountingWriter extends Writer {
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            characters += length;
+        }
+
+        @Override
+        public void write(String string) {
+            characters += string.length();
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+
+    private class CountingOutputStream extends OutputStream {
+        @Override
+        public void write(int value) {
+            characters++;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            characters += length;
+        }
+    }
+}
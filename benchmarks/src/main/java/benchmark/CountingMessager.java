@@ -0,0 +1,41 @@
+package benchmark;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.tools.Diagnostic;
+
+public class CountingMessager implements Messager {
+    private long errors;
+
+    public long errors() {
+        return errors;
+    }
+
+    @Override
+    public void printMessage(Diagnostic.Kind kind, CharSequence message) {
+        count(kind);
+    }
+
+    @Override
+    public void printMessage(Diagnostic.Kind kind, CharSequence message, Element element) {
+        count(kind);
+    }
+
+    @Override
+    public void printMessage(Diagnostic.Kind kind, CharSequence message, Element element, AnnotationMirror annotation) {
+        count(kind);
+    }
+
+    @Override
+    public void printMessage(Diagnostic.Kind kind, CharSequence message, Element element, AnnotationMirror annotation, AnnotationValue value) {
+        count(kind);
+    }
+
+    private void count(Diagnostic.Kind kind) {
+        if (kind == Diagnostic.Kind.ERROR) {
+            errors++;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package benchmark;
+
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+public class SyntheticSources {
+    public static final int MIN_COUNT = 100;
+    public static final int MAX_COUNT = 50_000;
+
+    private static final int PACKAGES = 50;
+    private static final int MAX_ARITY = 12;
+    private static final String[] PARAMETER_TYPES = {
+            "int",
+            "long",
+            "java.lang.String",
+            "double",
+            "boolean",
+            "java.util.List<java.lang.String>",
+            "java.util.Map<java.lang.String, java.lang.Integer>",
+            "java.util.Optional<java.lang.Long>",
+            "byte[]",
+            "java.lang.Object..."
+    };
+    private static final String[] GENERIC_PARAMETER_TYPES = {
+            "T",
+            "java.util.List<U>",
+            "java.util.Map<T, U>",
+            "java.util.function.Function<? super T, ? extends U>"
+    };
+
+    public static String packageName(int index) {
+        return "bench.gen.p" + (index % PACKAGES);
+    }
+
+    public static String className(int index) {
+        return "Model" + index;
+    }
+
+    public static String qualifiedName(int index) {
+        return packageName(index) + "." + className(index);
+    }
+
+    public static boolean isGeneric(int index) {
+        return index % 4 == 3;
+    }
+
+    public static int arity(int index) {
+        return index % (MAX_ARITY + 1);
+    }
+
+    public static String source(int index) {
+        var generic = isGeneric(index);
+        var arity = arity(index);
+        var parameters = new StringJoiner(", ");
+        for (int i = 0; i < arity; i++) {
+            var type = generic && i % 2 == 0
+                    ? GENERIC_PARAMETER_TYPES[(index + i) % GENERIC_PARAMETER_TYPES.length]
+                    : PARAMETER_TYPES[(index + i) % (PARAMETER_TYPES.length - 1)];
+            parameters.add(type + " p" + i);
+        }
+        if (index % 10 == 9) {
+            parameters.add(PARAMETER_TYPES[PARAMETER_TYPES.length - 1] + " rest");
+        }
+        var typeVariables = generic ? "<T extends java.lang.Comparable<T>, U>" : "";
+        return "package " + packageName(index) + ";\n"
+                + "\n"
+                + "import annotations.AutoBuilder;\n"
+                + "\n"
+                + "public class " + className(index) + typeVariables + " {\n"
+                + "    @AutoBuilder\n"
+                + "    public " + className(index) + "(" + parameters + ") {}\n"
+                + "}\n";
+    }
+
+    public static List<JavaFileObject> generate(int count) {
+        checkCount(count);
+        List<JavaFileObject> sources = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            sources.add(new Source(qualifiedName(index), source(index)));
+        }
+        return sources;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("uso: SyntheticSources <diretório de saída> <quantidade>");
+            System.exit(2);
+        }
+        var root = Path.of(args[0]);
+        var count = Integer.parseInt(args[1]);
+        checkCount(count);
+        for (int index = 0; index < count; index++) {
+            var path = root.resolve(qualifiedName(index).replace('.', '/') + ".java");
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, source(index));
+        }
+    }
+
+    private static void checkCount(int count) {
+        if (count < MIN_COUNT || count > MAX_COUNT) {
+            throw new IllegalArgumentException("count deve estar entre " + MIN_COUNT + " e " + MAX_COUNT + ": " + count);
+        }
+    }
+
+    private static class Source extends SimpleJavaFileObject {
+        private final String content;
+
+        Source(String qualifiedName, String content) {
+            super(URI.create("string:///" + qualifiedName.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package benchmark.model;
+
+import annotations.AutoBuilder;
+import annotations.Default;
+import annotations.Required;
+
+public record Entrega(String destino, int prazo, boolean expressa) {
+    @AutoBuilder
+    public Entrega(@Required String destino, @Default("5") int prazo, boolean expressa) {
+        this.destino = destino;
+        this.prazo = prazo;
+        this.expressa = expressa;
+    }
+}
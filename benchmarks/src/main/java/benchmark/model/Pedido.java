@@ -0,0 +1,42 @@
+package benchmark.model;
+
+import annotations.AutoBuilder;
+
+import java.util.List;
+
+public class Pedido {
+    private final long id;
+    private final String cliente;
+    private final int quantidade;
+    private final double preco;
+    private final List<String> itens;
+
+    @AutoBuilder
+    public Pedido(long id, String cliente, int quantidade, double preco, List<String> itens) {
+        this.id = id;
+        this.cliente = cliente;
+        this.quantidade = quantidade;
+        this.preco = preco;
+        this.itens = itens;
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public String cliente() {
+        return cliente;
+    }
+
+    public int quantidade() {
+        return quantidade;
+    }
+
+    public double preco() {
+        return preco;
+    }
+
+    public List<String> itens() {
+        return itens;
+    }
+}
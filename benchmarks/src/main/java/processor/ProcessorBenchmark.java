@@ -0,0 +1,99 @@
+package processor;
+
+import benchmark.AnalyzedModule;
+import benchmark.CountingFiler;
+import benchmark.CountingMessager;
+import benchmark.HeapCounters;
+import benchmark.SyntheticSources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ProcessorBenchmark {
+    @Param({"100", "1000", "10000", "50000"})
+    public int count;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private AnalyzedModule module;
+    private CountingFiler filer;
+    private List<BuilderData> builderDataList;
+    private ProcessingContext context;
+
+    @Setup(Level.Trial)
+    public void analyze() {
+        module = AnalyzedModule.analyze(SyntheticSources.generate(count));
+        filer = new CountingFiler();
+        var messager = new CountingMessager();
+        var options = ProcessorOptions.parse(Map.of(ProcessorOptions.THREADS, String.valueOf(threads)), messager);
+        context = newContext(messager, options);
+        builderDataList = module.annotatedConstructors()
+                .stream()
+                .map(element -> AutoBuildProcessor.mapToBuilderData(context, element))
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+
+    @Setup(Level.Invocation)
+    public void newRound() {
+        context = newContext(context.messager(), context.options());
+        filer.reset();
+    }
+
+    @Benchmark
+    public long process(HeapCounters heap) {
+        AutoBuildProcessor.process(context, module);
+        return filer.characters();
+    }
+
+    @Benchmark
+    public void buildBuilderClass(HeapCounters heap, Blackhole blackhole) {
+        for (BuilderData builderData : builderDataList) {
+            blackhole.consume(BuilderWriter.buildBuilderClass(builderData));
+        }
+    }
+
+    @Benchmark
+    public void mapToBuilderData(HeapCounters heap, Blackhole blackhole) {
+        for (Element element : module.annotatedConstructors()) {
+            blackhole.consume(AutoBuildProcessor.mapToBuilderData(context, element));
+        }
+    }
+
+    private ProcessingContext newContext(Messager messager, ProcessorOptions options) {
+        return new ProcessingContext(
+                filer,
+                module.task().getElements(),
+                messager,
+                module.task().getTypes(),
+                options,
+                SourceVersion.latestSupported()
+        );
+    }
+}
@@ -7,4 +7,18 @@ import java.lang.annotation.Target;
 
 @Target(ElementType.CONSTRUCTOR)
 @Retention(RetentionPolicy.SOURCE)
-public @interface AutoBuilder {}
+public @interface AutoBuilder {
+    boolean reusable() default false;
+    boolean withers() default false;
+    boolean batch() default false;
+    boolean flyweight() default false;
+    boolean codec() default false;
+    boolean allRequired() default false;
+    boolean interned() default false;
+    int internCapacity() default 1024;
+    boolean concurrent() default false;
+    boolean async() default false;
+    boolean lazy() default false;
+    boolean accumulators() default false;
+    boolean json() default false;
+}
@@ -0,0 +1,211 @@
+package processor;
+
+import com.squareup.javapoet.*;
+
+import javax.lang.model.element.Modifier;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+class AccumulatorWriter {
+    private static final String BUFFER_SUFFIX = "Buffer";
+    private static final String COUNT_SUFFIX = "Count";
+    private static final String LIST_SUFFIX = "ListView";
+
+    static boolean supports(PropertyData property) {
+        return elementType(property.type()) != null;
+    }
+
+    static TypeName elementType(TypeName typeName) {
+        if (typeName instanceof ArrayTypeName arrayTypeName) {
+            var componentType = arrayTypeName.componentType;
+            return componentType.equals(TypeName.INT) || componentType.equals(TypeName.LONG) || componentType.equals(TypeName.DOUBLE)
+                    ? componentType
+                    : null;
+        }
+        if (typeName instanceof ParameterizedTypeName parameterizedTypeName
+                && parameterizedTypeName.rawType.equals(ClassName.get(List.class))
+                && parameterizedTypeName.typeArguments.size() == 1) {
+            var elementType = parameterizedTypeName.typeArguments.get(0);
+            if (elementType.equals(TypeName.INT.box()) || elementType.equals(TypeName.LONG.box())) {
+                return elementType.unbox();
+            }
+        }
+        return null;
+    }
+
+    static List<PropertyData> accumulatedProperties(BuilderData builderData) {
+        return builderData.features().accumulators()
+                ? builderData.properties().stream().filter(AccumulatorWriter::supports).toList()
+                : List.of();
+    }
+
+    static String bufferFieldName(PropertyData property) {
+        return BuilderWriter.prefixFieldName(property.name() + BUFFER_SUFFIX);
+    }
+
+    static String countFieldName(PropertyData property) {
+        return BuilderWriter.prefixFieldName(property.name() + COUNT_SUFFIX);
+    }
+
+    static String accumulatedMethodName(PropertyData property) {
+        return "accumulated" + BuilderWriter.capitalize(property.name());
+    }
+
+    static List<FieldSpec> buildFields(PropertyData property) {
+        var arrayTypeName = ArrayTypeName.of(elementType(property.type()));
+        return List.of(
+                FieldSpec.builder(arrayTypeName, bufferFieldName(property), Modifier.PRIVATE).build(),
+                FieldSpec.builder(int.class, countFieldName(property), Modifier.PRIVATE).build()
+        );
+    }
+
+    static List<MethodSpec> buildMethods(TypeName builderTypeName, PropertyData property, CodeBlock markSet) {
+        var elementType = elementType(property.type());
+        var arrayTypeName = ArrayTypeName.of(elementType);
+        var capitalized = BuilderWriter.capitalize(property.name());
+        var fieldName = BuilderWriter.prefixFieldName(property.name());
+        var bufferFieldName = bufferFieldName(property);
+        var countFieldName = countFieldName(property);
+        var growMethodName = "grow" + capitalized;
+        var isList = !(property.type() instanceof ArrayTypeName);
+        List<MethodSpec> methodSpecs = new ArrayList<>();
+
+        methodSpecs.add(MethodSpec.methodBuilder(property.name() + "Capacity")
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(int.class, "capacity")
+                .returns(builderTypeName)
+                .addStatement("$L(capacity)", growMethodName)
+                .addStatement("return this")
+                .build());
+        methodSpecs.add(MethodSpec.methodBuilder("add" + capitalized)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(elementType, "value")
+                .returns(builderTypeName)
+                .addStatement("$T buffer = $L(1)", arrayTypeName, growMethodName)
+                .addStatement("buffer[this.$L++] = value", countFieldName)
+                .addCode(markSet)
+                .addStatement("return this")
+                .build());
+        methodSpecs.add(MethodSpec.methodBuilder("addAll" + capitalized)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(arrayTypeName, "values")
+                .varargs()
+                .returns(builderTypeName)
+                .addStatement("$T buffer = $L(values.length)", arrayTypeName, growMethodName)
+                .addStatement("$T.arraycopy(values, 0, buffer, this.$L, values.length)", System.class, countFieldName)
+                .addStatement("this.$L += values.length", countFieldName)
+                .addCode(markSet)
+                .addStatement("return this")
+                .build());
+
+        var growMethod = MethodSpec.methodBuilder(growMethodName)
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(int.class, "additional")
+                .returns(arrayTypeName)
+                .addStatement("$T buffer = this.$L", arrayTypeName, bufferFieldName)
+                .beginControlFlow("if (buffer == null)")
+                .addStatement("$T current = this.$L", property.type(), fieldName);
+        if (isList) {
+            growMethod.addStatement("int size = current == null ? 0 : current.size()")
+                    .addStatement("buffer = new $T[size + $T.max(additional, 0)]", elementType, Math.class)
+                    .beginControlFlow("for (int i = 0; i < size; i++)")
+                    .addStatement("buffer[i] = current.get(i)")
+                    .endControlFlow();
+        } else {
+            growMethod.addStatement("int size = current == null ? 0 : current.length")
+                    .addStatement("buffer = new $T[size + $T.max(additional, 0)]", elementType, Math.class)
+                    .beginControlFlow("if (size > 0)")
+                    .addStatement("$T.arraycopy(current, 0, buffer, 0, size)", System.class)
+                    .endControlFlow();
+        }
+        methodSpecs.add(growMethod
+                .addStatement("this.$L = buffer", bufferFieldName)
+                .addStatement("this.$L = size", countFieldName)
+                .nextControlFlow("else if (buffer.length - this.$L < additional)", countFieldName)
+                .addStatement(
+                        "buffer = $T.copyOf(buffer, $T.max(this.$L + additional, buffer.length + (buffer.length >> 1) + 1))",
+                        Arrays.class,
+                        Math.class,
+                        countFieldName
+                )
+                .addStatement("this.$L = buffer", bufferFieldName)
+                .endControlFlow()
+                .addStatement("return buffer")
+                .build());
+
+        var accumulatedMethod = MethodSpec.methodBuilder(accumulatedMethodName(property))
+                .addModifiers(Modifier.PRIVATE)
+                .returns(property.type())
+                .addStatement("$T buffer = this.$L", arrayTypeName, bufferFieldName)
+                .beginControlFlow("if (buffer == null)")
+                .addStatement("return this.$L", fieldName)
+                .endControlFlow()
+                .beginControlFlow("if (buffer.length != this.$L)", countFieldName)
+                .addStatement("buffer = $T.copyOf(buffer, this.$L)", Arrays.class, countFieldName)
+                .endControlFlow()
+                .addStatement("this.$L = null", bufferFieldName);
+        if (isList) {
+            accumulatedMethod.addStatement("this.$L = new $L(buffer)", fieldName, listViewName(elementType));
+        } else {
+            accumulatedMethod.addStatement("this.$L = buffer", fieldName);
+        }
+        methodSpecs.add(accumulatedMethod
+                .addStatement("return this.$L", fieldName)
+                .build());
+        return methodSpecs;
+    }
+
+    static CodeBlock buildResetStatements(BuilderData builderData) {
+        var reset = CodeBlock.builder();
+        for (PropertyData property : accumulatedProperties(builderData)) {
+            reset.addStatement("this.$L = null", bufferFieldName(property))
+                    .addStatement("this.$L = 0", countFieldName(property));
+        }
+        return reset.build();
+    }
+
+    static List<TypeSpec> buildListViewClasses(BuilderData builderData) {
+        return accumulatedProperties(builderData)
+                .stream()
+                .filter(property -> !(property.type() instanceof ArrayTypeName))
+                .map(property -> elementType(property.type()))
+                .distinct()
+                .map(AccumulatorWriter::buildListViewClass)
+                .toList();
+    }
+
+    private static String listViewName(TypeName elementType) {
+        return BuilderWriter.capitalize(elementType.toString()) + LIST_SUFFIX;
+    }
+
+    private static TypeSpec buildListViewClass(TypeName elementType) {
+        var boxedType = elementType.box();
+        return TypeSpec.classBuilder(listViewName(elementType))
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .superclass(ParameterizedTypeName.get(ClassName.get(AbstractList.class), boxedType))
+                .addSuperinterface(RandomAccess.class)
+                .addField(ArrayTypeName.of(elementType), "values", Modifier.PRIVATE, Modifier.FINAL)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addParameter(ArrayTypeName.of(elementType), "values")
+                        .addStatement("this.values = values")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("get")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .addParameter(int.class, "index")
+                        .returns(boxedType)
+                        .addStatement("return this.values[$T.checkIndex(index, this.values.length)]", Objects.class)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("size")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(int.class)
+                        .addStatement("return this.values.length")
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,178 @@
+package processor;
+
+import com.squareup.javapoet.*;
+
+import javax.lang.model.element.Modifier;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+class AsyncBuilderWriter {
+    static final String SUFFIX = "AsyncBuilder";
+    private static final String STAGE_SUFFIX = "Stage";
+    private static final ClassName COMPLETION_STAGE = ClassName.get(CompletionStage.class);
+
+    static boolean supports(TypeName typeName) {
+        var rawType = typeName instanceof ParameterizedTypeName parameterizedTypeName ? parameterizedTypeName.rawType : typeName;
+        return !rawType.equals(COMPLETION_STAGE);
+    }
+
+    static TypeSpec buildAsyncBuilderClass(BuilderData builderData) {
+        var asyncBuilderName = builderData.classNameTypePair().getFirst() + SUFFIX;
+        var asyncBuilderClassName = ClassName.get(builderData.packageName(), asyncBuilderName);
+        var typeVariables = builderData.typeParameterNames();
+        var asyncBuilderTypeName = BuilderWriter.parameterizedTypeName(asyncBuilderClassName, typeVariables);
+        var builtClassTypeName = builderData.classNameTypePair().getSecond();
+        var futureTypeName = ParameterizedTypeName.get(ClassName.get(CompletableFuture.class), builtClassTypeName);
+        var assemblyTypeName = BuilderWriter.parameterizedTypeName(asyncBuilderClassName.nestedClass("Assembly"), typeVariables);
+        var properties = builderData.properties();
+
+        var asyncBuilderSpecBuilder = TypeSpec.classBuilder(asyncBuilderName)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addTypeVariables(typeVariables);
+        for (PropertyData property : properties) {
+            var field = FieldSpec.builder(property.type(), BuilderWriter.prefixFieldName(property.name()), Modifier.PRIVATE);
+            if (property.defaultValue() != null) {
+                field.initializer(property.defaultValue());
+            }
+            asyncBuilderSpecBuilder.addField(field.build());
+            asyncBuilderSpecBuilder.addField(stageTypeName(property), stageFieldName(property), Modifier.PRIVATE);
+        }
+        var hasRequired = !builderData.requiredProperties().isEmpty();
+        if (hasRequired) {
+            asyncBuilderSpecBuilder.addFields(BuilderWriter.buildRequiredFields(builderData));
+        }
+        for (PropertyData property : properties) {
+            asyncBuilderSpecBuilder.addMethod(MethodSpec.methodBuilder(property.name())
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(property.type(), property.name())
+                    .returns(asyncBuilderTypeName)
+                    .addStatement("this.$L = $L", BuilderWriter.prefixFieldName(property.name()), property.name())
+                    .addStatement("this.$L = null", stageFieldName(property))
+                    .addCode(BuilderWriter.markSet(builderData, property))
+                    .addStatement("return this")
+                    .build());
+            asyncBuilderSpecBuilder.addMethod(MethodSpec.methodBuilder(property.name())
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(stageTypeName(property), property.name())
+                    .returns(asyncBuilderTypeName)
+                    .addStatement("this.$L = $T.requireNonNull($L, $S)", stageFieldName(property), Objects.class, property.name(), property.name())
+                    .addCode(BuilderWriter.markSet(builderData, property))
+                    .addStatement("return this")
+                    .build());
+        }
+        var buildAsyncMethod = MethodSpec.methodBuilder("buildAsync")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(futureTypeName);
+        if (hasRequired) {
+            buildAsyncMethod.beginControlFlow("if ($L)", BuilderWriter.missingCondition(builderData))
+                    .addStatement("return $T.failedFuture(missingParameters())", CompletableFuture.class)
+                    .endControlFlow();
+        }
+        asyncBuilderSpecBuilder.addMethod(buildAsyncMethod
+                .addStatement("$T assembly = new $T(this)", assemblyTypeName, assemblyTypeName)
+                .addStatement("assembly.start()")
+                .addStatement("return assembly.result")
+                .build());
+        if (hasRequired) {
+            asyncBuilderSpecBuilder.addMethod(BuilderWriter.buildMissingParametersMethod(builderData));
+        }
+        asyncBuilderSpecBuilder.addType(buildAssemblyClass(builderData, asyncBuilderTypeName, futureTypeName));
+        return asyncBuilderSpecBuilder.build();
+    }
+
+    private static TypeSpec buildAssemblyClass(BuilderData builderData, TypeName asyncBuilderTypeName, TypeName futureTypeName) {
+        var builtClassTypeName = builderData.classNameTypePair().getSecond();
+        var properties = builderData.properties();
+        var assemblySpecBuilder = TypeSpec.classBuilder("Assembly")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .addTypeVariables(builderData.typeParameterNames())
+                .addField(FieldSpec.builder(futureTypeName, "result", Modifier.FINAL)
+                        .initializer("new $T<>()", CompletableFuture.class)
+                        .build())
+                .addField(FieldSpec.builder(AtomicInteger.class, "pending", Modifier.PRIVATE, Modifier.FINAL)
+                        .initializer("new $T(1)", AtomicInteger.class)
+                        .build());
+        var constructor = MethodSpec.constructorBuilder().addParameter(asyncBuilderTypeName, "builder");
+        for (PropertyData property : properties) {
+            assemblySpecBuilder.addField(property.type(), BuilderWriter.prefixFieldName(property.name()), Modifier.PRIVATE);
+            assemblySpecBuilder.addField(stageTypeName(property), stageFieldName(property), Modifier.PRIVATE, Modifier.FINAL);
+            constructor.addStatement("this.$L = builder.$L", BuilderWriter.prefixFieldName(property.name()), BuilderWriter.prefixFieldName(property.name()));
+            constructor.addStatement("this.$L = builder.$L", stageFieldName(property), stageFieldName(property));
+        }
+        assemblySpecBuilder.addMethod(constructor.build());
+
+        var start = MethodSpec.methodBuilder("start");
+        for (PropertyData property : properties) {
+            start.beginControlFlow("if ($L != null)", stageFieldName(property))
+                    .addStatement("pending.incrementAndGet()")
+                    .endControlFlow();
+        }
+        for (PropertyData property : properties) {
+            start.beginControlFlow("if ($L != null)", stageFieldName(property))
+                    .addCode("$L.whenComplete((value, failure) -> {\n$>", stageFieldName(property))
+                    .beginControlFlow("if (failure != null)")
+                    .addStatement("fail(failure)")
+                    .nextControlFlow(property.type().isPrimitive() ? "else if (value == null)" : "else")
+                    .addCode(property.type().isPrimitive()
+                            ? CodeBlock.builder()
+                                    .addStatement("fail(new $T($S))", NullPointerException.class, property.name())
+                                    .nextControlFlow("else")
+                                    .build()
+                            : CodeBlock.of(""))
+                    .addStatement("$L = value", BuilderWriter.prefixFieldName(property.name()))
+                    .addStatement("arrived()")
+                    .endControlFlow()
+                    .addCode("$<});\n")
+                    .endControlFlow();
+        }
+        start.addStatement("result.whenComplete((value, failure) -> cancelInputs(failure))")
+                .addStatement("arrived()");
+        assemblySpecBuilder.addMethod(start.build());
+
+        var arguments = properties.stream()
+                .map(property -> BuilderWriter.prefixFieldName(property.name()))
+                .collect(Collectors.joining(", "));
+        assemblySpecBuilder.addMethod(MethodSpec.methodBuilder("arrived")
+                .addModifiers(Modifier.PRIVATE)
+                .beginControlFlow("if (pending.decrementAndGet() != 0)")
+                .addStatement("return")
+                .endControlFlow()
+                .beginControlFlow("try")
+                .addStatement("result.complete(new $T($L))", builtClassTypeName, arguments)
+                .nextControlFlow("catch ($T exception)", Throwable.class)
+                .addStatement("result.completeExceptionally(exception)")
+                .endControlFlow()
+                .build());
+        assemblySpecBuilder.addMethod(MethodSpec.methodBuilder("fail")
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(Throwable.class, "failure")
+                .addStatement("result.completeExceptionally(failure instanceof $T && failure.getCause() != null ? failure.getCause() : failure)", CompletionException.class)
+                .build());
+        var cancelInputs = MethodSpec.methodBuilder("cancelInputs")
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(Throwable.class, "failure")
+                .beginControlFlow("if (failure == null)")
+                .addStatement("return")
+                .endControlFlow();
+        for (PropertyData property : properties) {
+            cancelInputs.beginControlFlow("if ($L instanceof $T)", stageFieldName(property), Future.class)
+                    .addStatement("(($T<?>) $L).cancel(true)", Future.class, stageFieldName(property))
+                    .endControlFlow();
+        }
+        assemblySpecBuilder.addMethod(cancelInputs.build());
+        return assemblySpecBuilder.build();
+    }
+
+    private static String stageFieldName(PropertyData property) {
+        return BuilderWriter.prefixFieldName(property.name()) + STAGE_SUFFIX;
+    }
+
+    private static TypeName stageTypeName(PropertyData property) {
+        return ParameterizedTypeName.get(COMPLETION_STAGE, WildcardTypeName.subtypeOf(property.type().box()));
+    }
+}
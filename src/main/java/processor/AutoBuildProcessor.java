@@ -1,27 +1,152 @@
 package processor;
 
 import annotations.AutoBuilder;
+import annotations.Default;
+import annotations.Required;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeVariableName;
 import utils.Check;
 import utils.Pair;
 
 import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public class AutoBuildProcessor {
-    public static boolean process(RoundEnvironment environment) {
-        var annotatedElements = environment.getElementsAnnotatedWith(AutoBuilder.class);
+    private static final int PARALLEL_THRESHOLD = 32;
+    private static final Comparator<Element> ELEMENT_ORDER = Comparator.comparing(AutoBuildProcessor::sortKey);
+
+    public static boolean process(ProcessingContext context, RoundEnvironment environment) {
+        var annotatedElements = environment.getElementsAnnotatedWith(AutoBuilder.class)
+                .stream()
+                .sorted(ELEMENT_ORDER)
+                .collect(Collectors.toList());
         var annotatedElementsIsNotEmpty = !annotatedElements.isEmpty();
-        annotatedElements.parallelStream()
-                .map(AutoBuildProcessor::mapToBuilderData)
+        var round = context.stats().startRound(annotatedElements.size());
+
+        var extraction = round.time(ProcessorStats.Phase.EXTRACTION);
+        var extractedBuilders = annotatedElements.stream()
+                .map(element -> mapToBuilderData(context, element))
                 .filter(Optional::isPresent)
-                .forEach(optional -> BuilderWriter.write(MainProcessor.filer, optional.get()));
+                .map(Optional::get)
+                .collect(Collectors.toList());
+        extraction.stop(annotatedElements.size());
+
+        var builderDataList = extractedBuilders.stream()
+                .filter(builderData -> BuilderWriter.claim(context, builderData))
+                .collect(Collectors.toList());
+        if (context.options().emit() == ProcessorOptions.Emit.BYTECODE) {
+            builderDataList.stream()
+                    .filter(builderData -> !BytecodeWriter.supports(builderData))
+                    .forEach(builderData -> context.messager().printMessage(
+                            Diagnostic.Kind.NOTE,
+                            String.format("%s gerado como código-fonte: -A%s=bytecode só cobre builders sem atributos, @Required ou @Default", builderData.builderQualifiedName(), ProcessorOptions.EMIT),
+                            context.originatingElement(builderData)
+                    ));
+        }
+        if (context.options().jmh()) {
+            builderDataList.stream()
+                    .filter(builderData -> !BenchmarkWriter.supports(builderData))
+                    .forEach(builderData -> context.messager().printMessage(
+                            Diagnostic.Kind.NOTE,
+                            String.format("%s não terá benchmark JMH: -A%s não cobre classes genéricas", builderData.builderQualifiedName(), ProcessorOptions.JMH),
+                            context.originatingElement(builderData)
+                    ));
+        }
+        builderDataList.forEach(builderData -> context.inlineReport().record(context, builderData));
+        if (context.options().aggregating()) {
+            registerBuilders(context, builderDataList);
+        }
+
+        var rendering = round.time(ProcessorStats.Phase.RENDERING);
+        var renderedSources = render(context, builderDataList);
+        renderedSources.sort(Comparator.comparing(RenderedSource::qualifiedName));
+        rendering.stop(renderedSources.size());
+
+        Map<String, Integer> lastSources = new HashMap<>();
+        for (int i = 0; i < renderedSources.size(); i++) {
+            lastSources.put(renderedSources.get(i).builderQualifiedName(), i);
+        }
+        var writing = round.time(ProcessorStats.Phase.WRITING);
+        for (int i = 0; i < renderedSources.size(); i++) {
+            var renderedSource = renderedSources.set(i, null);
+            BuilderWriter.write(context, renderedSource);
+            round.generated(renderedSource);
+            if (lastSources.get(renderedSource.builderQualifiedName()) == i) {
+                context.release(renderedSource.builderQualifiedName());
+            }
+        }
+        writing.stop(renderedSources.size());
+
+        if (context.options().aggregating() && context.registry().pending() && (builderDataList.isEmpty() || environment.processingOver())) {
+            RegistryWriter.write(context);
+        }
+
+        round.builders(builderDataList.size(), extractedBuilders.size() - builderDataList.size());
+        round.end();
+        context.endRound();
+        if (environment.processingOver()) {
+            context.stats().report(context.messager());
+            context.inlineReport().write(context.messager());
+        }
         return annotatedElementsIsNotEmpty;
     }
 
-    private static Optional<BuilderData> mapToBuilderData(Element annotatedElement) {
+    private static void registerBuilders(ProcessingContext context, List<BuilderData> builderDataList) {
+        var registry = context.registry();
+        if (registry.written() && !builderDataList.isEmpty()) {
+            builderDataList.forEach(builderData -> context.messager().printMessage(
+                    Diagnostic.Kind.WARNING,
+                    String.format("%s gerado após %s.%s e não foi incluído no registro", builderData.builderQualifiedName(), context.options().registryPackage(), RegistryWriter.CLASS_NAME),
+                    context.originatingElement(builderData)
+            ));
+            return;
+        }
+        var registryPackage = context.options().registryPackage();
+        List<BuilderData> registered = new ArrayList<>();
+        for (BuilderData builderData : builderDataList) {
+            if (context.options().registry() && builderData.packageName().isEmpty()) {
+                context.messager().printMessage(
+                        Diagnostic.Kind.WARNING,
+                        String.format("%s está no pacote padrão e não pode ser referenciado por %s.%s", builderData.builderQualifiedName(), registryPackage, RegistryWriter.CLASS_NAME),
+                        context.originatingElement(builderData)
+                );
+            } else {
+                registered.add(builderData);
+            }
+        }
+        registry.register(registered);
+    }
+
+    private static String sortKey(Element element) {
+        var enclosingElement = element.getEnclosingElement();
+        var owner = enclosingElement instanceof QualifiedNameable qualifiedNameable
+                ? qualifiedNameable.getQualifiedName().toString()
+                : String.valueOf(enclosingElement);
+        return owner + "#" + element;
+    }
+
+    static Optional<BuilderData> mapToBuilderData(ProcessingContext context, Element annotatedElement) {
         var constructor = (ExecutableElement) annotatedElement;
         var parentElement = (TypeElement) constructor.getEnclosingElement();
         var grandParentElement = parentElement.getEnclosingElement();
@@ -30,18 +155,247 @@ public class AutoBuildProcessor {
             packageName = qualifiedNameable.getQualifiedName().toString();
         }
         var modifiers = constructor.getModifiers();
-        List<TypeParameterElement> typeParameterElements = parentElement.getTypeParameters()
+        List<TypeVariableName> typeParameterNames = parentElement.getTypeParameters()
                 .stream()
-                .map(t -> (TypeParameterElement) t)
+                .map(context.typeNames()::get)
                 .collect(Collectors.toList());
-        if (Check.check(modifiers.contains(Modifier.PUBLIC), new Element[]{constructor},"Construtor anotado com @AutoBuilder deve ser público")) {
-            var properties = constructor.getParameters()
+        if (Check.check(context, modifiers.contains(Modifier.PUBLIC), new Element[]{constructor},"Construtor anotado com @AutoBuilder deve ser público")) {
+            var features = BuilderFeatures.of(constructor.getAnnotation(AutoBuilder.class));
+            if (!Check.check(
+                    context,
+                    !features.interned() || (features.internCapacity() >= 1 && features.internCapacity() <= InternerWriter.MAX_CAPACITY),
+                    new Element[]{constructor},
+                    "internCapacity deve estar entre 1 e %d, mas é %d",
+                    InternerWriter.MAX_CAPACITY,
+                    features.internCapacity()
+            ) || !Check.check(
+                    context,
+                    !features.concurrent() || (!constructor.getParameters().isEmpty() && constructor.getParameters().size() <= ConcurrentBuilderWriter.MAX_PARAMETERS),
+                    new Element[]{constructor},
+                    "ConcurrentBuilder exige entre 1 e %d parâmetros, mas há %d",
+                    ConcurrentBuilderWriter.MAX_PARAMETERS,
+                    constructor.getParameters().size()
+            )) {
+                return Optional.empty();
+            }
+            var members = features.needsAccessors() ? ElementFilter.methodsIn(context.elements().getAllMembers(parentElement)) : List.<ExecutableElement>of();
+            List<PropertyData> properties = new ArrayList<>();
+            var parametersValid = true;
+            for (VariableElement parameter : constructor.getParameters()) {
+                String accessor = null;
+                if (features.needsAccessors()) {
+                    accessor = findAccessor(context, members, parameter).orElse(null);
+                    parametersValid &= Check.check(
+                            context,
+                            accessor != null,
+                            new Element[]{parameter},
+                            "Parâmetro %s não possui acessor correspondente em %s",
+                            parameter.getSimpleName(),
+                            parentElement.getSimpleName()
+                    );
+                }
+                var type = context.typeNames().get(parameter.asType());
+                if (features.flyweight()) {
+                    parametersValid &= Check.check(
+                            context,
+                            FlyweightWriter.supports(type),
+                            new Element[]{parameter},
+                            "Flyweight exige parâmetros primitivos, mas %s é %s",
+                            parameter.getSimpleName(),
+                            type
+                    ) && Check.check(
+                            context,
+                            !FlyweightWriter.RESERVED_NAMES.contains(parameter.getSimpleName().toString()),
+                            new Element[]{parameter},
+                            "Flyweight não aceita o parâmetro %s, que conflita com um método gerado",
+                            parameter.getSimpleName()
+                    );
+                }
+                if (features.async()) {
+                    parametersValid &= Check.check(
+                            context,
+                            AsyncBuilderWriter.supports(type),
+                            new Element[]{parameter},
+                            "AsyncBuilder não suporta o parâmetro %s do tipo %s",
+                            parameter.getSimpleName(),
+                            type
+                    );
+                }
+                ValueKind valueKind = null;
+                BuilderFeatures nestedFeatures = null;
+                if (features.needsValueKinds()) {
+                    valueKind = classify(context, parameter.asType());
+                    if (valueKind == ValueKind.AUTO_BUILDER) {
+                        nestedFeatures = findAutoBuilderFeatures(context.types().asElement(parameter.asType())).orElseThrow();
+                    }
+                }
+                if (features.codec()) {
+                    parametersValid &= Check.check(
+                            context,
+                            valueKind != ValueKind.OTHER,
+                            new Element[]{parameter},
+                            "Codec não suporta o parâmetro %s do tipo %s",
+                            parameter.getSimpleName(),
+                            type
+                    ) && Check.check(
+                            context,
+                            valueKind != ValueKind.AUTO_BUILDER || nestedFeatures.codec(),
+                            new Element[]{parameter},
+                            "Codec do parâmetro %s exige @AutoBuilder(codec = true) em %s",
+                            parameter.getSimpleName(),
+                            type
+                    );
+                }
+                if (features.json()) {
+                    parametersValid &= Check.check(
+                            context,
+                            JsonReaderWriter.supports(valueKind),
+                            new Element[]{parameter},
+                            "JsonReader não suporta o parâmetro %s do tipo %s",
+                            parameter.getSimpleName(),
+                            type
+                    ) && Check.check(
+                            context,
+                            valueKind != ValueKind.AUTO_BUILDER || nestedFeatures.json(),
+                            new Element[]{parameter},
+                            "JsonReader do parâmetro %s exige @AutoBuilder(json = true) em %s",
+                            parameter.getSimpleName(),
+                            type
+                    );
+                }
+                var defaultAnnotation = parameter.getAnnotation(Default.class);
+                CodeBlock defaultValue = null;
+                if (defaultAnnotation != null) {
+                    parametersValid &= Check.check(
+                            context,
+                            parameter.getAnnotation(Required.class) == null,
+                            new Element[]{parameter},
+                            "Parâmetro %s não pode ser @Required e ter @Default",
+                            parameter.getSimpleName()
+                    );
+                    defaultValue = DefaultValueParser.parse(context, parameter, parentElement, defaultAnnotation).orElse(null);
+                    parametersValid &= defaultValue != null;
+                }
+                var required = defaultAnnotation == null
+                        && (features.allRequired() || parameter.getAnnotation(Required.class) != null);
+                properties.add(new PropertyData(parameter.getSimpleName().toString(), type, accessor, valueKind, nestedFeatures, required, defaultValue));
+            }
+            if (!parametersValid) {
+                return Optional.empty();
+            }
+            var classNameTypePair = new Pair<>(parentElement.getSimpleName().toString(), context.typeNames().get(parentElement.asType()));
+            var interfaceBounds = parentElement.getTypeParameters()
                     .stream()
-                    .map(parameter -> new Pair<>(parameter.getSimpleName().toString(), parameter.asType()))
-                    .collect(Collectors.toList());
-            var classNameTypePair = new Pair<>(parentElement.getSimpleName().toString(), parentElement.asType());
-            return Optional.of(new BuilderData(packageName, typeParameterElements, properties, classNameTypePair));
+                    .flatMap(typeParameter -> typeParameter.getBounds().stream())
+                    .map(context.types()::asElement)
+                    .filter(element -> element != null && element.getKind().isInterface())
+                    .map(element -> context.typeNames().get((TypeElement) element))
+                    .collect(Collectors.toSet());
+            var builderClassName = ClassName.get(packageName, classNameTypePair.getFirst() + BuilderWriter.SUFFIX);
+            var builderData = new BuilderData(packageName, typeParameterNames, interfaceBounds, properties, classNameTypePair, features, builderClassName);
+            context.originate(builderData, parentElement);
+            return Optional.of(builderData);
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<String> findAccessor(ProcessingContext context, List<ExecutableElement> members, VariableElement parameter) {
+        var name = parameter.getSimpleName().toString();
+        var capitalizedName = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        var isBoolean = parameter.asType().getKind() == TypeKind.BOOLEAN;
+        var candidates = isBoolean
+                ? List.of(name, "is" + capitalizedName, "get" + capitalizedName)
+                : List.of(name, "get" + capitalizedName);
+        for (String candidate : candidates) {
+            for (ExecutableElement method : members) {
+                if (method.getSimpleName().contentEquals(candidate)
+                        && method.getParameters().isEmpty()
+                        && !method.getModifiers().contains(Modifier.PRIVATE)
+                        && !method.getModifiers().contains(Modifier.STATIC)
+                        && context.types().isSameType(method.getReturnType(), parameter.asType())) {
+                    return Optional.of(candidate);
+                }
+            }
         }
         return Optional.empty();
     }
+
+    private static ValueKind classify(ProcessingContext context, TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return ValueKind.PRIMITIVE;
+        }
+        if (type instanceof ArrayType arrayType) {
+            return arrayType.getComponentType().getKind() == TypeKind.BYTE ? ValueKind.BYTES : ValueKind.OTHER;
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return ValueKind.OTHER;
+        }
+        var element = (TypeElement) context.types().asElement(type);
+        if (element.getKind() == ElementKind.ENUM) {
+            return ValueKind.ENUM;
+        }
+        if (element.getQualifiedName().contentEquals(String.class.getCanonicalName())) {
+            return ValueKind.STRING;
+        }
+        try {
+            context.types().unboxedType(type);
+            return ValueKind.BOXED;
+        } catch (IllegalArgumentException notBoxed) {
+            return findAutoBuilderFeatures(element).isPresent() ? ValueKind.AUTO_BUILDER : ValueKind.OTHER;
+        }
+    }
+
+    private static Optional<BuilderFeatures> findAutoBuilderFeatures(Element element) {
+        return ElementFilter.constructorsIn(element.getEnclosedElements())
+                .stream()
+                .map(constructor -> constructor.getAnnotation(AutoBuilder.class))
+                .filter(annotation -> annotation != null)
+                .findFirst()
+                .map(BuilderFeatures::of);
+    }
+
+    private static List<RenderedSource> render(ProcessingContext context, List<BuilderData> builderDataList) {
+        var threads = context.options().threads();
+        if (threads <= 1 || builderDataList.size() < PARALLEL_THRESHOLD) {
+            return builderDataList.stream()
+                    .flatMap(builderData -> BuilderWriter.render(context, builderData).stream())
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+        var chunkCount = Math.min(threads, builderDataList.size() / (PARALLEL_THRESHOLD / 2));
+        var chunkSize = (builderDataList.size() + chunkCount - 1) / chunkCount;
+        List<Callable<List<RenderedSource>>> tasks = new ArrayList<>();
+        for (int start = 0; start < builderDataList.size(); start += chunkSize) {
+            var chunk = builderDataList.subList(start, Math.min(start + chunkSize, builderDataList.size()));
+            tasks.add(() -> chunk.stream()
+                    .flatMap(builderData -> BuilderWriter.render(context, builderData).stream())
+                    .collect(Collectors.toList()));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size(), renderThreadFactory());
+        try {
+            List<RenderedSource> renderedSources = new ArrayList<>(builderDataList.size());
+            for (Future<List<RenderedSource>> future : executor.invokeAll(tasks)) {
+                renderedSources.addAll(future.get());
+            }
+            return renderedSources;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Geração de builders interrompida", exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(exception.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ThreadFactory renderThreadFactory() {
+        var counter = new AtomicInteger();
+        return runnable -> {
+            var thread = new Thread(runnable, "autobuilder-render-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
 }
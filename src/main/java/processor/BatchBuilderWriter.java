@@ -0,0 +1,221 @@
+package processor;
+
+import com.squareup.javapoet.*;
+
+import javax.lang.model.element.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+
+class BatchBuilderWriter {
+    static final String SUFFIX = "BatchBuilder";
+    private static final String COLUMN_SUFFIX = "Column";
+    private static final String FUNCTION_SUFFIX = "Function";
+    private static final int PARALLEL_THRESHOLD = 8192;
+
+    static TypeSpec buildBatchBuilderClass(BuilderData builderData) {
+        var batchBuilderName = builderData.classNameTypePair().getFirst() + SUFFIX;
+        var batchBuilderClassName = ClassName.get(builderData.packageName(), batchBuilderName);
+        var builtClassTypeName = builderData.classNameTypePair().getSecond();
+        var builtArrayTypeName = ArrayTypeName.of(builtClassTypeName);
+        var batchBuilderSpecBuilder = TypeSpec.classBuilder(batchBuilderName)
+                .addModifiers(Modifier.PUBLIC)
+                .addTypeVariables(builderData.typeParameterNames())
+                .addField(FieldSpec.builder(int.class, "PARALLEL_THRESHOLD", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$L", PARALLEL_THRESHOLD)
+                        .build());
+        for (PropertyData property : builderData.properties()) {
+            addColumn(batchBuilderSpecBuilder, batchBuilderClassName, property);
+        }
+        var unchecked = AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked").build();
+        var newArray = builderData.typeParameterNames().isEmpty()
+                ? CodeBlock.of("new $T[n]", builtClassTypeName)
+                : CodeBlock.of("($T) new $T[n]", builtArrayTypeName, rawTypeName(builtClassTypeName));
+
+        var buildAllMethod = MethodSpec.methodBuilder("buildAll")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(builtArrayTypeName)
+                .addParameter(int.class, "n")
+                .addStatement("checkColumns(n)")
+                .addStatement("$T built = $L", builtArrayTypeName, newArray)
+                .addStatement("fill(built, 0, n)")
+                .addStatement("return built");
+        var buildAllListMethod = MethodSpec.methodBuilder("buildAllList")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(ParameterizedTypeName.get(ClassName.get(List.class), builtClassTypeName))
+                .addParameter(int.class, "n")
+                .addStatement("return $T.asList(buildAll(n))", Arrays.class);
+        var buildAllParallelMethod = MethodSpec.methodBuilder("buildAllParallel")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(builtArrayTypeName)
+                .addParameter(int.class, "n")
+                .addStatement("return buildAllParallel(n, $T.commonPool())", ForkJoinPool.class);
+        var buildAllParallelWithPoolMethod = MethodSpec.methodBuilder("buildAllParallel")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(builtArrayTypeName)
+                .addParameter(int.class, "n")
+                .addParameter(ForkJoinPool.class, "pool")
+                .addStatement("checkColumns(n)")
+                .addStatement("$T built = $L", builtArrayTypeName, newArray)
+                .beginControlFlow("if (n < PARALLEL_THRESHOLD)")
+                .addStatement("fill(built, 0, n)")
+                .nextControlFlow("else")
+                .addStatement("pool.invoke(new Fill(built, 0, n))")
+                .endControlFlow()
+                .addStatement("return built");
+        if (!builderData.typeParameterNames().isEmpty()) {
+            buildAllMethod.addAnnotation(unchecked);
+            buildAllParallelWithPoolMethod.addAnnotation(unchecked);
+        }
+        batchBuilderSpecBuilder.addMethod(buildAllMethod.build());
+        batchBuilderSpecBuilder.addMethod(buildAllListMethod.build());
+        batchBuilderSpecBuilder.addMethod(buildAllParallelMethod.build());
+        batchBuilderSpecBuilder.addMethod(buildAllParallelWithPoolMethod.build());
+        batchBuilderSpecBuilder.addMethod(buildCheckColumnsMethod(builderData));
+        batchBuilderSpecBuilder.addMethod(buildFillMethod(builderData, builtArrayTypeName));
+        batchBuilderSpecBuilder.addType(buildFillTaskType(builtArrayTypeName));
+        return batchBuilderSpecBuilder.build();
+    }
+
+    private static void addColumn(TypeSpec.Builder batchBuilderSpecBuilder, ClassName batchBuilderClassName, PropertyData property) {
+        var fieldName = BuilderWriter.prefixFieldName(property.name());
+        var columnTypeName = ArrayTypeName.of(property.type());
+        batchBuilderSpecBuilder.addField(FieldSpec.builder(columnTypeName, fieldName, Modifier.PRIVATE).build());
+        var columnSetterBuilder = MethodSpec.methodBuilder(property.name())
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(columnTypeName, property.name())
+                .addStatement("this.$L = $L", fieldName, property.name());
+        var function = columnFunction(property.type());
+        if (function != null) {
+            var functionFieldName = fieldName + FUNCTION_SUFFIX;
+            batchBuilderSpecBuilder.addField(FieldSpec.builder(function.typeName(), functionFieldName, Modifier.PRIVATE).build());
+            columnSetterBuilder.addStatement("this.$L = null", functionFieldName);
+            batchBuilderSpecBuilder.addMethod(columnSetterBuilder.addStatement("return this").returns(batchBuilderClassName).build());
+            batchBuilderSpecBuilder.addMethod(MethodSpec.methodBuilder(property.name())
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(function.typeName(), property.name())
+                    .addStatement("this.$L = $L", functionFieldName, property.name())
+                    .addStatement("this.$L = null", fieldName)
+                    .addStatement("return this")
+                    .returns(batchBuilderClassName)
+                    .build());
+        } else {
+            batchBuilderSpecBuilder.addMethod(columnSetterBuilder.addStatement("return this").returns(batchBuilderClassName).build());
+        }
+    }
+
+    private static MethodSpec buildCheckColumnsMethod(BuilderData builderData) {
+        var checkColumnsMethod = MethodSpec.methodBuilder("checkColumns")
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(int.class, "n")
+                .beginControlFlow("if (n < 0)")
+                .addStatement("throw new $T($S + n)", IllegalArgumentException.class, "Quantidade negativa: ")
+                .endControlFlow();
+        for (PropertyData property : builderData.properties()) {
+            var fieldName = BuilderWriter.prefixFieldName(property.name());
+            checkColumnsMethod.beginControlFlow("if (this.$L != null && this.$L.length < n)", fieldName, fieldName)
+                    .addStatement(
+                            "throw new $T($S + this.$L.length + $S + n)",
+                            IllegalArgumentException.class,
+                            "Coluna " + property.name() + " tem ",
+                            fieldName,
+                            " elementos, esperado ao menos "
+                    )
+                    .endControlFlow();
+        }
+        return checkColumnsMethod.build();
+    }
+
+    private static MethodSpec buildFillMethod(BuilderData builderData, TypeName builtArrayTypeName) {
+        var builtClassTypeName = builderData.classNameTypePair().getSecond();
+        var fillMethod = MethodSpec.methodBuilder("fill")
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(builtArrayTypeName, "built")
+                .addParameter(int.class, "from")
+                .addParameter(int.class, "to");
+        List<String> arguments = new ArrayList<>();
+        for (PropertyData property : builderData.properties()) {
+            var fieldName = BuilderWriter.prefixFieldName(property.name());
+            var function = columnFunction(property.type());
+            var columnName = property.name() + COLUMN_SUFFIX;
+            fillMethod.addStatement("$T $L = this.$L", ArrayTypeName.of(property.type()), columnName, fieldName);
+            if (function != null) {
+                var functionName = property.name() + FUNCTION_SUFFIX;
+                fillMethod.addStatement(
+                        "$T $L = this.$L != null ? this.$L : i -> $L",
+                        function.typeName(),
+                        functionName,
+                        fieldName + FUNCTION_SUFFIX,
+                        fieldName + FUNCTION_SUFFIX,
+                        BuilderWriter.initialValue(property)
+                );
+                arguments.add(String.format("%s != null ? %s[i] : %s.%s(i)", columnName, columnName, functionName, function.method()));
+            } else {
+                arguments.add(String.format("%s != null ? %s[i] : %s", columnName, columnName, BuilderWriter.initialValue(property)));
+            }
+        }
+        fillMethod.beginControlFlow("for (int i = from; i < to; i++)")
+                .addStatement("built[i] = new $T($L)", builtClassTypeName, String.join(", ", arguments))
+                .endControlFlow();
+        return fillMethod.build();
+    }
+
+    private static TypeSpec buildFillTaskType(TypeName builtArrayTypeName) {
+        return TypeSpec.classBuilder("Fill")
+                .addModifiers(Modifier.PRIVATE, Modifier.FINAL)
+                .superclass(RecursiveAction.class)
+                .addField(builtArrayTypeName, "built", Modifier.PRIVATE, Modifier.FINAL)
+                .addField(int.class, "from", Modifier.PRIVATE, Modifier.FINAL)
+                .addField(int.class, "to", Modifier.PRIVATE, Modifier.FINAL)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addParameter(builtArrayTypeName, "built")
+                        .addParameter(int.class, "from")
+                        .addParameter(int.class, "to")
+                        .addStatement("this.built = built")
+                        .addStatement("this.from = from")
+                        .addStatement("this.to = to")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("compute")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PROTECTED)
+                        .beginControlFlow("if (to - from <= PARALLEL_THRESHOLD)")
+                        .addStatement("fill(built, from, to)")
+                        .addStatement("return")
+                        .endControlFlow()
+                        .addStatement("int middle = (from + to) >>> 1")
+                        .addStatement("invokeAll(new Fill(built, from, middle), new Fill(built, middle, to))")
+                        .build())
+                .build();
+    }
+
+    private static ColumnFunction columnFunction(TypeName typeName) {
+        if (typeName.equals(TypeName.INT)) {
+            return new ColumnFunction(ClassName.get(IntUnaryOperator.class), "applyAsInt");
+        }
+        if (typeName.equals(TypeName.LONG)) {
+            return new ColumnFunction(ClassName.get(IntToLongFunction.class), "applyAsLong");
+        }
+        if (typeName.equals(TypeName.DOUBLE)) {
+            return new ColumnFunction(ClassName.get(IntToDoubleFunction.class), "applyAsDouble");
+        }
+        if (typeName.isPrimitive()) {
+            return null;
+        }
+        return new ColumnFunction(
+                ParameterizedTypeName.get(ClassName.get(IntFunction.class), WildcardTypeName.subtypeOf(typeName)),
+                "apply"
+        );
+    }
+
+    private static TypeName rawTypeName(TypeName typeName) {
+        return typeName instanceof ParameterizedTypeName parameterizedTypeName ? parameterizedTypeName.rawType : typeName;
+    }
+
+    private record ColumnFunction(TypeName typeName, String method) { }
+}
@@ -0,0 +1,98 @@
+package processor;
+
+import com.squareup.javapoet.*;
+
+import javax.lang.model.element.Modifier;
+import java.util.concurrent.TimeUnit;
+
+class BenchmarkWriter {
+    static final String SUFFIX = "BuilderBenchmark";
+    private static final String JMH_ANNOTATIONS = "org.openjdk.jmh.annotations";
+    private static final ClassName BENCHMARK = ClassName.get(JMH_ANNOTATIONS, "Benchmark");
+    private static final ClassName BENCHMARK_MODE = ClassName.get(JMH_ANNOTATIONS, "BenchmarkMode");
+    private static final ClassName MODE = ClassName.get(JMH_ANNOTATIONS, "Mode");
+    private static final ClassName OUTPUT_TIME_UNIT = ClassName.get(JMH_ANNOTATIONS, "OutputTimeUnit");
+    private static final ClassName STATE = ClassName.get(JMH_ANNOTATIONS, "State");
+    private static final ClassName SCOPE = ClassName.get(JMH_ANNOTATIONS, "Scope");
+    private static final ClassName WARMUP = ClassName.get(JMH_ANNOTATIONS, "Warmup");
+    private static final ClassName MEASUREMENT = ClassName.get(JMH_ANNOTATIONS, "Measurement");
+    private static final ClassName FORK = ClassName.get(JMH_ANNOTATIONS, "Fork");
+    private static final ClassName GC_PROFILER = ClassName.get("org.openjdk.jmh.profile", "GCProfiler");
+    private static final ClassName RUNNER = ClassName.get("org.openjdk.jmh.runner", "Runner");
+    private static final ClassName RUNNER_EXCEPTION = ClassName.get("org.openjdk.jmh.runner", "RunnerException");
+    private static final ClassName OPTIONS_BUILDER = ClassName.get("org.openjdk.jmh.runner.options", "OptionsBuilder");
+
+    static boolean supports(BuilderData builderData) {
+        return builderData.typeParameterNames().isEmpty();
+    }
+
+    static TypeSpec buildBenchmarkClass(BuilderData builderData) {
+        var builtClassName = builderData.classNameTypePair().getFirst();
+        var benchmarkName = builtClassName + SUFFIX;
+        var benchmarkClassName = ClassName.get(builderData.packageName(), benchmarkName);
+        var builderClassName = builderData.builderClassName();
+        var builtClassTypeName = builderData.classNameTypePair().getSecond();
+        var benchmarkSpecBuilder = TypeSpec.classBuilder(benchmarkName)
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(AnnotationSpec.builder(STATE).addMember("value", "$T.Thread", SCOPE).build())
+                .addAnnotation(AnnotationSpec.builder(BENCHMARK_MODE).addMember("value", "$T.AverageTime", MODE).build())
+                .addAnnotation(AnnotationSpec.builder(OUTPUT_TIME_UNIT).addMember("value", "$T.NANOSECONDS", TimeUnit.class).build())
+                .addAnnotation(AnnotationSpec.builder(WARMUP).addMember("iterations", "3").addMember("time", "1").build())
+                .addAnnotation(AnnotationSpec.builder(MEASUREMENT).addMember("iterations", "5").addMember("time", "1").build())
+                .addAnnotation(AnnotationSpec.builder(FORK).addMember("value", "1").build());
+
+        var chain = CodeBlock.builder().add("new $T()", builderClassName);
+        for (PropertyData property : builderData.properties()) {
+            benchmarkSpecBuilder.addField(FieldSpec.builder(property.type(), property.name(), Modifier.PRIVATE)
+                    .initializer(sampleValue(property))
+                    .build());
+            chain.add(".$L(this.$L)", property.name(), property.name());
+        }
+        var arguments = builderData.properties()
+                .stream()
+                .map(property -> CodeBlock.of("this.$L", property.name()))
+                .collect(CodeBlock.joining(", "));
+        benchmarkSpecBuilder.addMethod(MethodSpec.methodBuilder("builder")
+                .addAnnotation(BENCHMARK)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(builtClassTypeName)
+                .addStatement("return $L.build()", chain.build())
+                .build());
+        benchmarkSpecBuilder.addMethod(MethodSpec.methodBuilder("constructor")
+                .addAnnotation(BENCHMARK)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(builtClassTypeName)
+                .addStatement("return new $T($L)", builtClassTypeName, arguments)
+                .build());
+        benchmarkSpecBuilder.addMethod(MethodSpec.methodBuilder("main")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addParameter(String[].class, "args")
+                .addException(RUNNER_EXCEPTION)
+                .addStatement(
+                        "new $T(new $T().include($T.class.getName()).addProfiler($T.class).build()).run()",
+                        RUNNER,
+                        OPTIONS_BUILDER,
+                        benchmarkClassName,
+                        GC_PROFILER
+                )
+                .build());
+        return benchmarkSpecBuilder.build();
+    }
+
+    private static CodeBlock sampleValue(PropertyData property) {
+        if (property.defaultValue() != null) {
+            return property.defaultValue();
+        }
+        var type = property.type();
+        if (type.isPrimitive()) {
+            return BuilderWriter.defaultValue(type);
+        }
+        if (type.isBoxedPrimitive()) {
+            return BuilderWriter.defaultValue(type.unbox());
+        }
+        if (type.equals(ClassName.get(String.class))) {
+            return BuilderWriter.stringLiteral(property.name());
+        }
+        return CodeBlock.of("null");
+    }
+}
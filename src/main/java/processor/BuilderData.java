@@ -1,14 +1,42 @@
 package processor;
 
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeVariableName;
 import utils.Pair;
 
-import javax.lang.model.element.TypeParameterElement;
-import javax.lang.model.type.TypeMirror;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public record BuilderData(
         String packageName,
-        List<TypeParameterElement> typeParameterNames,
-        List<Pair<String, TypeMirror>> properties,
-        Pair<String, TypeMirror> classNameTypePair
-) { }
\ No newline at end of file
+        List<TypeVariableName> typeParameterNames,
+        Set<ClassName> interfaceBounds,
+        List<PropertyData> properties,
+        Pair<String, TypeName> classNameTypePair,
+        BuilderFeatures features,
+        ClassName builderClassName
+) {
+    public String builderQualifiedName() {
+        return builderClassName.canonicalName();
+    }
+
+    public String qualifiedName(String simpleName) {
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    public List<PropertyData> requiredProperties() {
+        return properties.stream().filter(PropertyData::required).collect(Collectors.toList());
+    }
+
+    public String fingerprint() {
+        var typeParameters = typeParameterNames.stream()
+                .map(t -> t.name + ":" + t.bounds)
+                .collect(Collectors.joining(","));
+        var propertyTypes = properties.stream()
+                .map(property -> property.name() + ":" + property.type() + ":" + property.accessor() + ":" + property.valueKind() + ":" + property.nestedFeatures() + ":" + property.required() + ":" + property.defaultValue())
+                .collect(Collectors.joining(","));
+        return String.join("|", packageName, classNameTypePair.getSecond().toString(), typeParameters, propertyTypes, features.toString());
+    }
+}
@@ -0,0 +1,45 @@
+package processor;
+
+import annotations.AutoBuilder;
+
+public record BuilderFeatures(
+        boolean reusable,
+        boolean withers,
+        boolean batch,
+        boolean flyweight,
+        boolean codec,
+        boolean allRequired,
+        boolean interned,
+        int internCapacity,
+        boolean concurrent,
+        boolean async,
+        boolean lazy,
+        boolean accumulators,
+        boolean json
+) {
+    static BuilderFeatures of(AutoBuilder annotation) {
+        return new BuilderFeatures(
+                annotation.reusable(),
+                annotation.withers(),
+                annotation.batch(),
+                annotation.flyweight(),
+                annotation.codec(),
+                annotation.allRequired(),
+                annotation.interned(),
+                annotation.internCapacity(),
+                annotation.concurrent(),
+                annotation.async(),
+                annotation.lazy(),
+                annotation.accumulators(),
+                annotation.json()
+        );
+    }
+
+    boolean needsAccessors() {
+        return withers || codec || interned;
+    }
+
+    boolean needsValueKinds() {
+        return codec || json;
+    }
+}
@@ -0,0 +1,48 @@
+package processor;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.ParameterizedTypeName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+class BuilderRegistry {
+    private final Map<String, Entry> entries = new TreeMap<>();
+    private boolean written;
+
+    void register(List<BuilderData> builderDataList) {
+        for (BuilderData builderData : builderDataList) {
+            var builtClassTypeName = builderData.classNameTypePair().getSecond();
+            var builtClassName = builtClassTypeName instanceof ParameterizedTypeName parameterizedTypeName
+                    ? parameterizedTypeName.rawType
+                    : (ClassName) builtClassTypeName;
+            entries.put(builtClassName.reflectionName(), new Entry(
+                    builtClassName.reflectionName(),
+                    builtClassName.canonicalName(),
+                    builderData.builderClassName(),
+                    !builderData.typeParameterNames().isEmpty()
+            ));
+        }
+    }
+
+    boolean pending() {
+        return !written && !entries.isEmpty();
+    }
+
+    boolean written() {
+        return written;
+    }
+
+    void markWritten() {
+        written = true;
+    }
+
+    List<Entry> entries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    record Entry(String builtClassName, String canonicalName, ClassName builderClassName, boolean generic) {
+    }
+}
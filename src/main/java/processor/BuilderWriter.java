@@ -1,91 +1,607 @@
 package processor;
 
 import com.squareup.javapoet.*;
+import utils.Check;
 import utils.Pair;
 
-import javax.annotation.processing.Filer;
-import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Element;
 import javax.lang.model.element.Modifier;
-import javax.lang.model.type.TypeMirror;
 import java.io.IOException;
-import java.lang.reflect.Field;
-import java.lang.reflect.Type;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 class BuilderWriter {
-    private static final String SUFFIX = "Builder";
+    static final String SUFFIX = "Builder";
     private static final String FIELD_PREFIX = "_";
-    public static void write(Filer filer, BuilderData builderData) {
-        JavaFile javaFile = JavaFile.builder(builderData.packageName(), buildBuilderClass(builderData)).build();
+    private static final int REUSABLE_POOL_SIZE = 16;
+    private static final String SET_MASK_PREFIX = "setMask";
+    private static final String REQUIRED_MASK_PREFIX = "REQUIRED_MASK_";
+    private static final String LAZY_CLASS_NAME = "Lazy";
+
+    public static boolean claim(ProcessingContext context, BuilderData builderData) {
+        var fingerprint = builderData.fingerprint();
+        var previousFingerprint = context.writtenBuilders().putIfAbsent(builderData.builderQualifiedName(), fingerprint);
+        if (previousFingerprint == null) {
+            return true;
+        }
+        Check.check(
+                context,
+                previousFingerprint.equals(fingerprint),
+                new Element[]{context.originatingElement(builderData)},
+                "Já existe um builder diferente gerado para %s",
+                builderData.builderQualifiedName()
+        );
+        return false;
+    }
+
+    public static List<RenderedSource> render(ProcessingContext context, BuilderData builderData) {
+        List<RenderedSource> renderedSources = new ArrayList<>();
+        List<TypeSpec> typeSpecs = new ArrayList<>();
+        if (context.options().emit() == ProcessorOptions.Emit.BYTECODE && BytecodeWriter.supports(builderData)) {
+            renderedSources.add(RenderedSource.ofBytecode(
+                    builderData.builderQualifiedName(),
+                    BytecodeWriter.buildBuilderClassFile(builderData, BytecodeWriter.classFileVersion(context.sourceVersion())),
+                    context.originatingElement(builderData)
+            ));
+        } else {
+            typeSpecs.add(buildBuilderClass(builderData));
+        }
+        if (builderData.features().batch()) {
+            typeSpecs.add(BatchBuilderWriter.buildBatchBuilderClass(builderData));
+        }
+        if (builderData.features().flyweight()) {
+            typeSpecs.add(FlyweightWriter.buildFlyweightClass(builderData));
+        }
+        if (builderData.features().codec()) {
+            typeSpecs.add(CodecWriter.buildCodecClass(builderData));
+        }
+        if (builderData.features().interned()) {
+            typeSpecs.add(InternerWriter.buildInternerClass(builderData));
+        }
+        if (builderData.features().concurrent()) {
+            typeSpecs.add(ConcurrentBuilderWriter.buildConcurrentBuilderClass(builderData));
+        }
+        if (builderData.features().async()) {
+            typeSpecs.add(AsyncBuilderWriter.buildAsyncBuilderClass(builderData));
+        }
+        if (builderData.features().json()) {
+            typeSpecs.add(JsonReaderWriter.buildJsonReaderClass(builderData));
+        }
+        if (context.options().jmh() && BenchmarkWriter.supports(builderData)) {
+            typeSpecs.add(BenchmarkWriter.buildBenchmarkClass(builderData));
+        }
+        for (TypeSpec typeSpec : typeSpecs) {
+            renderedSources.add(RenderedSource.ofSource(
+                    builderData.qualifiedName(typeSpec.name),
+                    builderData.builderQualifiedName(),
+                    JavaFile.builder(builderData.packageName(), typeSpec).build().toString(),
+                    context.originatingElement(builderData)
+            ));
+        }
+        return renderedSources;
+    }
+
+    public static void write(ProcessingContext context, RenderedSource renderedSource) {
+        var filer = context.filer();
         try {
-            javaFile.writeTo(filer);
-        } catch (IOException exception) {}
+            if (renderedSource.bytecode() != null) {
+                var classFile = filer.createClassFile(renderedSource.qualifiedName(), renderedSource.originatingElement());
+                try (OutputStream output = classFile.openOutputStream()) {
+                    output.write(renderedSource.bytecode());
+                }
+                return;
+            }
+            var sourceFile = filer.createSourceFile(renderedSource.qualifiedName(), renderedSource.originatingElement());
+            try (Writer writer = sourceFile.openWriter()) {
+                writer.write(renderedSource.source());
+            }
+        } catch (IOException exception) {
+            Check.check(
+                    context,
+                    false,
+                    new Element[]{renderedSource.originatingElement()},
+                    "Falha ao escrever %s: %s",
+                    renderedSource.qualifiedName(),
+                    exception.getMessage()
+            );
+        }
     }
 
-    private static String prefixFieldName(String fieldName) {
+    static String prefixFieldName(String fieldName) {
         return FIELD_PREFIX + fieldName;
     }
-    private static TypeSpec buildBuilderClass(BuilderData builderData) {
-        var builtClassName = builderData.classNameTypePair().getFirst();
-        var builderName = builtClassName + SUFFIX;
-        var builderSpecBuilder = TypeSpec.classBuilder(builderName)
-                .addModifiers(Modifier.PUBLIC)
-                .addTypeVariables(builderData.typeParameterNames()
-                        .stream()
-                        .map(TypeVariableName::get)
-                        .collect(Collectors.toList())
-                );
-        var fieldsAndMethodsPair = buildFieldsAndMethods(builderData, builderName);
+    static TypeSpec buildBuilderClass(BuilderData builderData) {
+        var builderClassName = builderData.builderClassName();
+        var builderSpecBuilder = TypeSpec.classBuilder(builderClassName)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addTypeVariables(builderData.typeParameterNames());
+        var fieldsAndMethodsPair = buildFieldsAndMethods(builderData, builderClassName);
         builderSpecBuilder.addFields(fieldsAndMethodsPair.getFirst());
         builderSpecBuilder.addMethods(fieldsAndMethodsPair.getSecond());
         builderSpecBuilder.addMethod(buildBuildMethodSpec(builderData));
+        if (!builderData.requiredProperties().isEmpty()) {
+            builderSpecBuilder.addFields(buildRequiredFields(builderData));
+            builderSpecBuilder.addMethod(buildMissingParametersMethod(builderData));
+            if (maskWords(builderData) > 1) {
+                builderSpecBuilder.addMethod(buildCheckRequiredMethod(builderData));
+            }
+        }
+        if (builderData.features().reusable()) {
+            builderSpecBuilder.addFields(buildReusableFields(builderData, builderClassName));
+            builderSpecBuilder.addStaticBlock(buildReusableStaticBlock(builderClassName));
+            builderSpecBuilder.addMethods(buildReusableMethods(builderData, builderClassName));
+        }
+        if (builderData.features().withers()) {
+            builderSpecBuilder.addMethods(buildWitherMethods(builderData, builderClassName));
+        }
+        if (builderData.features().interned()) {
+            builderSpecBuilder.addMethod(buildInternedMethodSpec(builderData));
+        }
+        if (builderData.features().lazy()) {
+            builderSpecBuilder.addMethod(buildLazyMethodSpec(builderData));
+            builderSpecBuilder.addType(buildLazyClass(builderData));
+        }
+        builderSpecBuilder.addTypes(AccumulatorWriter.buildListViewClasses(builderData));
         return builderSpecBuilder.build();
     }
 
-    private static Pair<List<FieldSpec>, List<MethodSpec>> buildFieldsAndMethods(BuilderData builderData, String builderName) {
+    private static Pair<List<FieldSpec>, List<MethodSpec>> buildFieldsAndMethods(BuilderData builderData, ClassName builderClassName) {
         List<FieldSpec> fieldSpecs = new ArrayList<>();
         List<MethodSpec> methodSpecs = new ArrayList<>();
-        for (Pair<String, TypeMirror> pair : builderData.properties()) {
-            var fieldAndSetterPair = buildFieldAndSetter(builderData, builderName, pair);
+        for (PropertyData property : builderData.properties()) {
+            var fieldAndSetterPair = buildFieldAndSetter(builderData, builderClassName, property);
             fieldSpecs.add(fieldAndSetterPair.getFirst());
             methodSpecs.add(fieldAndSetterPair.getSecond());
         }
+        for (PropertyData property : AccumulatorWriter.accumulatedProperties(builderData)) {
+            fieldSpecs.addAll(AccumulatorWriter.buildFields(property));
+            methodSpecs.addAll(AccumulatorWriter.buildMethods(builderClassName, property, markSet(builderData, property)));
+        }
         return new Pair<>(fieldSpecs, methodSpecs);
     }
 
     private static Pair<FieldSpec, MethodSpec> buildFieldAndSetter(
             BuilderData builderData,
-            String builderName,
-            Pair<String, TypeMirror> pair
+            ClassName builderClassName,
+            PropertyData property
     ) {
-        var methodName = pair.getFirst();
+        var methodName = property.name();
         var fieldName = prefixFieldName(methodName);
-        var fieldTypeName = TypeName.get(pair.getSecond());
-        var builderClassName = ClassName.get(builderData.packageName(), builderName);
-        var fieldSpec = FieldSpec.builder(fieldTypeName, fieldName, Modifier.PRIVATE).build();
-        var methodSpec = MethodSpec.methodBuilder(methodName)
+        var fieldTypeName = property.type();
+        var fieldSpecBuilder = FieldSpec.builder(fieldTypeName, fieldName, Modifier.PRIVATE);
+        if (property.defaultValue() != null) {
+            fieldSpecBuilder.initializer(property.defaultValue());
+        }
+        var fieldSpec = fieldSpecBuilder.build();
+        var methodSpecBuilder = MethodSpec.methodBuilder(methodName)
                 .addModifiers(Modifier.PUBLIC)
-                .addParameter(fieldTypeName, pair.getFirst())
-                .addStatement("this.$L = $L", fieldName, methodName)
+                .addParameter(fieldTypeName, property.name())
+                .addStatement("this.$L = $L", fieldName, methodName);
+        if (builderData.features().accumulators() && AccumulatorWriter.supports(property)) {
+            methodSpecBuilder.addStatement("this.$L = null", AccumulatorWriter.bufferFieldName(property));
+        }
+        var methodSpec = methodSpecBuilder
+                .addCode(markSet(builderData, property))
                 .addStatement("return this")
                 .returns(builderClassName)
                 .build();
         return new Pair(fieldSpec, methodSpec);
     }
 
+    static CodeBlock markSet(BuilderData builderData, PropertyData property) {
+        if (!property.required()) {
+            return CodeBlock.of("");
+        }
+        var bit = builderData.requiredProperties().indexOf(property);
+        return CodeBlock.of("this.$L |= 1L << $L;\n", setMaskName(bit / Long.SIZE), bit % Long.SIZE);
+    }
+
     private static MethodSpec buildBuildMethodSpec(BuilderData builderData) {
-        var builtClassTypeName = TypeName.get(builderData.classNameTypePair().getSecond());
-        var constructorArgumentsJoined = builderData.properties()
-                .stream()
-                .map(pair -> String.format("this.%s", prefixFieldName(pair.getFirst())))
-                .collect(Collectors.joining(","));
+        var builtClassTypeName = builderData.classNameTypePair().getSecond();
         var buildMethodSpec = MethodSpec.methodBuilder("build")
                 .returns(builtClassTypeName)
-                .addStatement("return new $T($L)", builtClassTypeName, constructorArgumentsJoined);
+                .addCode(requiredCheck(builderData))
+                .addStatement("return new $T($L)", builtClassTypeName, builderArguments(builderData));
         return buildMethodSpec.build();
     }
-}
\ No newline at end of file
+
+    private static MethodSpec buildInternedMethodSpec(BuilderData builderData) {
+        var internerClassName = ClassName.get(builderData.packageName(), builderData.classNameTypePair().getFirst() + InternerWriter.SUFFIX);
+        return MethodSpec.methodBuilder("buildInterned")
+                .returns(builderData.classNameTypePair().getSecond())
+                .addCode(requiredCheck(builderData))
+                .addStatement("return $T.intern($L)", internerClassName, builderArguments(builderData))
+                .build();
+    }
+
+    private static MethodSpec buildLazyMethodSpec(BuilderData builderData) {
+        var builtClassTypeName = builderData.classNameTypePair().getSecond();
+        return MethodSpec.methodBuilder("buildLazy")
+                .returns(ParameterizedTypeName.get(ClassName.get(Supplier.class), builtClassTypeName))
+                .addCode(requiredCheck(builderData))
+                .addStatement(
+                        builderData.typeParameterNames().isEmpty() ? "return new $L($L)" : "return new $L<>($L)",
+                        LAZY_CLASS_NAME,
+                        builderArguments(builderData)
+                )
+                .build();
+    }
+
+    private static TypeSpec buildLazyClass(BuilderData builderData) {
+        var builtClassTypeName = builderData.classNameTypePair().getSecond();
+        var lazySpecBuilder = TypeSpec.classBuilder(LAZY_CLASS_NAME)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .addTypeVariables(builderData.typeParameterNames())
+                .addSuperinterface(ParameterizedTypeName.get(ClassName.get(Supplier.class), builtClassTypeName))
+                .addField(FieldSpec.builder(ReentrantLock.class, "lock", Modifier.PRIVATE, Modifier.FINAL)
+                        .initializer("new $T()", ReentrantLock.class)
+                        .build())
+                .addField(builtClassTypeName, "value", Modifier.PRIVATE, Modifier.VOLATILE);
+        var constructor = MethodSpec.constructorBuilder();
+        var release = CodeBlock.builder();
+        for (PropertyData property : builderData.properties()) {
+            var fieldName = prefixFieldName(property.name());
+            lazySpecBuilder.addField(property.type(), fieldName, Modifier.PRIVATE);
+            constructor.addParameter(property.type(), fieldName)
+                    .addStatement("this.$L = $L", fieldName, fieldName);
+            if (!property.type().isPrimitive()) {
+                release.addStatement("this.$L = null", fieldName);
+            }
+        }
+        lazySpecBuilder.addMethod(constructor.build());
+        lazySpecBuilder.addMethod(MethodSpec.methodBuilder("get")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(builtClassTypeName)
+                .addStatement("$T result = this.value", builtClassTypeName)
+                .addStatement("return result != null ? result : initialize()")
+                .build());
+        lazySpecBuilder.addMethod(MethodSpec.methodBuilder("initialize")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(builtClassTypeName)
+                .addStatement("this.lock.lock()")
+                .beginControlFlow("try")
+                .addStatement("$T result = this.value", builtClassTypeName)
+                .beginControlFlow("if (result == null)")
+                .addStatement("result = new $T($L)", builtClassTypeName, constructorArguments(builderData))
+                .addStatement("this.value = result")
+                .addCode(release.build())
+                .endControlFlow()
+                .addStatement("return result")
+                .nextControlFlow("finally")
+                .addStatement("this.lock.unlock()")
+                .endControlFlow()
+                .build());
+        return lazySpecBuilder.build();
+    }
+
+    static int maskWords(BuilderData builderData) {
+        return (builderData.requiredProperties().size() + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private static String setMaskName(int word) {
+        return SET_MASK_PREFIX + word;
+    }
+
+    private static String requiredMaskName(int word) {
+        return REQUIRED_MASK_PREFIX + word;
+    }
+
+    static List<FieldSpec> buildRequiredFields(BuilderData builderData) {
+        var requiredCount = builderData.requiredProperties().size();
+        List<FieldSpec> fieldSpecs = new ArrayList<>();
+        for (int word = 0; word < maskWords(builderData); word++) {
+            var bits = Math.min(Long.SIZE, requiredCount - word * Long.SIZE);
+            var mask = bits == Long.SIZE ? "-1L" : String.format("(1L << %d) - 1", bits);
+            fieldSpecs.add(FieldSpec.builder(long.class, requiredMaskName(word), Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$L", mask)
+                    .build());
+            fieldSpecs.add(FieldSpec.builder(long.class, setMaskName(word), Modifier.PRIVATE).build());
+        }
+        return fieldSpecs;
+    }
+
+    private static CodeBlock requiredCheck(BuilderData builderData) {
+        var words = maskWords(builderData);
+        if (words == 0) {
+            return CodeBlock.of("");
+        }
+        if (words > 1) {
+            return CodeBlock.of("checkRequired();\n");
+        }
+        return requiredCondition(builderData);
+    }
+
+    private static MethodSpec buildCheckRequiredMethod(BuilderData builderData) {
+        return MethodSpec.methodBuilder("checkRequired")
+                .addModifiers(Modifier.PRIVATE)
+                .addCode(requiredCondition(builderData))
+                .build();
+    }
+
+    private static CodeBlock requiredCondition(BuilderData builderData) {
+        return CodeBlock.builder()
+                .beginControlFlow("if ($L)", missingCondition(builderData))
+                .addStatement("throw missingParameters()")
+                .endControlFlow()
+                .build();
+    }
+
+    static String missingCondition(BuilderData builderData) {
+        var words = maskWords(builderData);
+        return words == 1
+                ? String.format("this.%s != %s", setMaskName(0), requiredMaskName(0))
+                : IntStream.range(0, words)
+                        .mapToObj(word -> String.format("(this.%s ^ %s)", setMaskName(word), requiredMaskName(word)))
+                        .collect(Collectors.joining(" | ", "(", ") != 0"));
+    }
+
+    static MethodSpec buildMissingParametersMethod(BuilderData builderData) {
+        var missingParametersMethod = MethodSpec.methodBuilder("missingParameters")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(IllegalStateException.class)
+                .addStatement("$T missing = new $T($S)", StringJoiner.class, StringJoiner.class, ", ");
+        var requiredProperties = builderData.requiredProperties();
+        for (int bit = 0; bit < requiredProperties.size(); bit++) {
+            missingParametersMethod.beginControlFlow(
+                            "if ((this.$L & (1L << $L)) == 0)",
+                            setMaskName(bit / Long.SIZE),
+                            bit % Long.SIZE
+                    )
+                    .addStatement("missing.add($S)", requiredProperties.get(bit).name())
+                    .endControlFlow();
+        }
+        return missingParametersMethod
+                .addStatement("return new $T($L + missing)", IllegalStateException.class, stringLiteral("Parâmetros obrigatórios não informados: "))
+                .build();
+    }
+
+    static String constructorArguments(BuilderData builderData) {
+        return builderData.properties()
+                .stream()
+                .map(property -> String.format("this.%s", prefixFieldName(property.name())))
+                .collect(Collectors.joining(","));
+    }
+
+    private static String builderArguments(BuilderData builderData) {
+        var accumulatedProperties = AccumulatorWriter.accumulatedProperties(builderData);
+        if (accumulatedProperties.isEmpty()) {
+            return constructorArguments(builderData);
+        }
+        return builderData.properties()
+                .stream()
+                .map(property -> accumulatedProperties.contains(property)
+                        ? String.format("%s()", AccumulatorWriter.accumulatedMethodName(property))
+                        : String.format("this.%s", prefixFieldName(property.name())))
+                .collect(Collectors.joining(","));
+    }
+
+    private static List<FieldSpec> buildReusableFields(BuilderData builderData, ClassName builderClassName) {
+        var sharedBuilderTypeName = wildcardTypeName(builderClassName, builderData.typeParameterNames().size());
+        var poolSizeField = FieldSpec.builder(int.class, "POOL_SIZE", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$L", REUSABLE_POOL_SIZE)
+                .build();
+        var threadLocalField = FieldSpec.builder(
+                        ParameterizedTypeName.get(ClassName.get(ThreadLocal.class), sharedBuilderTypeName),
+                        "THREAD_LOCAL",
+                        Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL
+                )
+                .initializer("$T.withInitial($T::new)", ThreadLocal.class, builderClassName)
+                .build();
+        var poolField = FieldSpec.builder(
+                        ParameterizedTypeName.get(ClassName.get(AtomicReferenceArray.class), sharedBuilderTypeName),
+                        "POOL",
+                        Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL
+                )
+                .initializer("new $T<>(POOL_SIZE)", AtomicReferenceArray.class)
+                .build();
+        var pooledHandleField = FieldSpec.builder(VarHandle.class, "POOLED", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL).build();
+        var pooledField = FieldSpec.builder(boolean.class, "pooled", Modifier.PRIVATE, Modifier.VOLATILE).build();
+        return List.of(poolSizeField, threadLocalField, poolField, pooledHandleField, pooledField);
+    }
+
+    private static CodeBlock buildReusableStaticBlock(ClassName builderClassName) {
+        return CodeBlock.builder()
+                .beginControlFlow("try")
+                .addStatement("POOLED = $T.lookup().findVarHandle($T.class, $S, boolean.class)", MethodHandles.class, builderClassName, "pooled")
+                .nextControlFlow("catch ($T exception)", ReflectiveOperationException.class)
+                .addStatement("throw new $T(exception)", ExceptionInInitializerError.class)
+                .endControlFlow()
+                .build();
+    }
+
+    private static List<MethodSpec> buildReusableMethods(BuilderData builderData, ClassName builderClassName) {
+        var typeVariables = builderData.typeParameterNames();
+        var builderTypeName = parameterizedTypeName(builderClassName, typeVariables);
+        var sharedBuilderTypeName = wildcardTypeName(builderClassName, typeVariables.size());
+        var cast = typeVariables.isEmpty() ? CodeBlock.of("") : CodeBlock.of("($T) ", builderTypeName);
+
+        var threadLocalMethod = MethodSpec.methodBuilder("threadLocal")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addTypeVariables(typeVariables)
+                .returns(builderTypeName)
+                .addStatement("return $LTHREAD_LOCAL.get().reset()", cast);
+        var acquireMethod = MethodSpec.methodBuilder("acquire")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addTypeVariables(typeVariables)
+                .returns(builderTypeName)
+                .addStatement("int start = Thread.currentThread().hashCode()")
+                .beginControlFlow("for (int i = 0; i < POOL_SIZE; i++)")
+                .addStatement("int index = (start + i) & (POOL_SIZE - 1)")
+                .addStatement("$T builder = POOL.get(index)", sharedBuilderTypeName)
+                .beginControlFlow("if (builder != null && POOL.compareAndSet(index, builder, null))")
+                .addStatement("builder.pooled = false")
+                .addStatement("return $Lbuilder", cast)
+                .endControlFlow()
+                .endControlFlow()
+                .addStatement("return new $T()", builderTypeName)
+                .build();
+        var releaseMethod = MethodSpec.methodBuilder("release")
+                .addModifiers(Modifier.PUBLIC)
+                .beginControlFlow("if (!POOLED.compareAndSet(this, false, true))")
+                .addStatement("return")
+                .endControlFlow()
+                .addStatement("reset()")
+                .addStatement("int start = Thread.currentThread().hashCode()")
+                .beginControlFlow("for (int i = 0; i < POOL_SIZE; i++)")
+                .addStatement("int index = (start + i) & (POOL_SIZE - 1)")
+                .beginControlFlow("if (POOL.get(index) == null && POOL.compareAndSet(index, null, this))")
+                .addStatement("return")
+                .endControlFlow()
+                .endControlFlow()
+                .addStatement("this.pooled = false")
+                .build();
+        var resetMethod = MethodSpec.methodBuilder("reset")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(builderClassName);
+        for (PropertyData property : builderData.properties()) {
+            resetMethod.addStatement("this.$L = $L", prefixFieldName(property.name()), initialValue(property));
+        }
+        for (int word = 0; word < maskWords(builderData); word++) {
+            resetMethod.addStatement("this.$L = 0", setMaskName(word));
+        }
+        resetMethod.addCode(AccumulatorWriter.buildResetStatements(builderData));
+        resetMethod.addStatement("return this");
+        var builtClassTypeName = builderData.classNameTypePair().getSecond();
+        var buildAndResetMethod = MethodSpec.methodBuilder("buildAndReset")
+                .returns(builtClassTypeName)
+                .addCode(requiredCheck(builderData))
+                .addStatement("$T built = new $T($L)", builtClassTypeName, builtClassTypeName, builderArguments(builderData))
+                .addStatement("reset()")
+                .addStatement("return built")
+                .build();
+        if (!typeVariables.isEmpty()) {
+            var unchecked = AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked").build();
+            threadLocalMethod.addAnnotation(unchecked);
+            acquireMethod = acquireMethod.toBuilder().addAnnotation(unchecked).build();
+        }
+        return List.of(threadLocalMethod.build(), acquireMethod, releaseMethod, resetMethod.build(), buildAndResetMethod);
+    }
+
+    private static List<MethodSpec> buildWitherMethods(BuilderData builderData, ClassName builderClassName) {
+        var typeVariables = builderData.typeParameterNames();
+        var builtClassTypeName = builderData.classNameTypePair().getSecond();
+        List<MethodSpec> methodSpecs = new ArrayList<>();
+        for (PropertyData property : builderData.properties()) {
+            var sourceName = property.name().equals("source") ? "original" : "source";
+            var constructorArguments = builderData.properties()
+                    .stream()
+                    .map(other -> other == property ? other.name() : String.format("%s.%s()", sourceName, other.accessor()))
+                    .collect(Collectors.joining(", "));
+            methodSpecs.add(MethodSpec.methodBuilder("with" + capitalize(property.name()))
+                    .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                    .addTypeVariables(typeVariables)
+                    .addParameter(builtClassTypeName, sourceName)
+                    .addParameter(property.type(), property.name())
+                    .returns(builtClassTypeName)
+                    .addStatement("return new $T($L)", builtClassTypeName, constructorArguments)
+                    .build());
+        }
+        var builderTypeName = parameterizedTypeName(builderClassName, typeVariables);
+        var toBuilderMethod = MethodSpec.methodBuilder("toBuilder")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addTypeVariables(typeVariables)
+                .addParameter(builtClassTypeName, "source")
+                .returns(builderTypeName)
+                .addStatement("$T builder = new $T()", builderTypeName, builderTypeName);
+        for (PropertyData property : builderData.properties()) {
+            toBuilderMethod.addStatement("builder.$L = source.$L()", prefixFieldName(property.name()), property.accessor());
+        }
+        for (int word = 0; word < maskWords(builderData); word++) {
+            toBuilderMethod.addStatement("builder.$L = $L", setMaskName(word), requiredMaskName(word));
+        }
+        toBuilderMethod.addStatement("return builder");
+        methodSpecs.add(toBuilderMethod.build());
+        return methodSpecs;
+    }
+
+    static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    static Map<String, String> constantNames(List<PropertyData> properties, String suffix) {
+        Map<String, String> constantNames = new HashMap<>();
+        Set<String> used = new HashSet<>();
+        for (int i = 0; i < properties.size(); i++) {
+            var name = properties.get(i).name().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT) + suffix;
+            if (!used.add(name)) {
+                name = name + "_" + i;
+                used.add(name);
+            }
+            constantNames.put(properties.get(i).name(), name);
+        }
+        return constantNames;
+    }
+
+    static TypeName parameterizedTypeName(ClassName className, List<TypeVariableName> typeVariables) {
+        return typeVariables.isEmpty()
+                ? className
+                : ParameterizedTypeName.get(className, typeVariables.toArray(TypeName[]::new));
+    }
+
+    private static TypeName wildcardTypeName(ClassName className, int typeParameterCount) {
+        if (typeParameterCount == 0) {
+            return className;
+        }
+        var wildcards = new TypeName[typeParameterCount];
+        Arrays.fill(wildcards, WildcardTypeName.subtypeOf(Object.class));
+        return ParameterizedTypeName.get(className, wildcards);
+    }
+
+    static CodeBlock stringLiteral(String value) {
+        var literal = new StringBuilder();
+        CodeBlock.of("$S", value).toString().chars().forEach(character -> {
+            if (character < 0x80) {
+                literal.append((char) character);
+            } else {
+                literal.append(String.format("\\u%04x", character));
+            }
+        });
+        return CodeBlock.of("$L", literal);
+    }
+
+    static CodeBlock initialValue(PropertyData property) {
+        return property.defaultValue() != null ? property.defaultValue() : defaultValue(property.type());
+    }
+
+    static CodeBlock defaultValue(TypeName typeName) {
+        if (typeName.equals(TypeName.BOOLEAN)) {
+            return CodeBlock.of("false");
+        }
+        if (typeName.equals(TypeName.LONG)) {
+            return CodeBlock.of("0L");
+        }
+        if (typeName.equals(TypeName.FLOAT)) {
+            return CodeBlock.of("0.0f");
+        }
+        if (typeName.equals(TypeName.DOUBLE)) {
+            return CodeBlock.of("0.0");
+        }
+        if (typeName.equals(TypeName.CHAR)) {
+            return CodeBlock.of("'\\u0000'");
+        }
+        if (typeName.equals(TypeName.BYTE) || typeName.equals(TypeName.SHORT)) {
+            return CodeBlock.of("($T) 0", typeName);
+        }
+        if (typeName.isPrimitive()) {
+            return CodeBlock.of("0");
+        }
+        return CodeBlock.of("null");
+    }
+}
@@ -0,0 +1,241 @@
+package processor;
+
+import com.squareup.javapoet.*;
+
+import javax.lang.model.SourceVersion;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+class BytecodeWriter {
+    private static final String OBJECT = "java/lang/Object";
+    private static final String CONSTRUCTOR = "<init>";
+    private static final int MINIMUM_VERSION = 8;
+    private static final int VERSION_OFFSET = 44;
+
+    static boolean supports(BuilderData builderData) {
+        var features = builderData.features();
+        return !features.reusable()
+                && !features.withers()
+                && !features.batch()
+                && !features.flyweight()
+                && !features.codec()
+                && !features.interned()
+                && !features.concurrent()
+                && !features.async()
+                && !features.lazy()
+                && !features.accumulators()
+                && !features.json()
+                && builderData.properties().stream().noneMatch(property -> property.required() || property.defaultValue() != null);
+    }
+
+    static int classFileVersion(SourceVersion sourceVersion) {
+        return VERSION_OFFSET + Math.max(MINIMUM_VERSION, sourceVersion.ordinal());
+    }
+
+    static byte[] buildBuilderClassFile(BuilderData builderData, int majorVersion) {
+        var types = new Types(builderData);
+        var builderName = builderData.classNameTypePair().getFirst() + BuilderWriter.SUFFIX;
+        var builderInternalName = internalName(ClassName.get(builderData.packageName(), builderName));
+        var builderDescriptor = "L" + builderInternalName + ";";
+        var builtClassTypeName = builderData.classNameTypePair().getSecond();
+        var builtInternalName = internalName(rawClassName(builtClassTypeName));
+        var classFile = new ClassFileWriter(
+                majorVersion,
+                ClassFileWriter.ACC_PUBLIC | ClassFileWriter.ACC_FINAL | ClassFileWriter.ACC_SUPER,
+                builderInternalName,
+                OBJECT
+        );
+        if (!builderData.typeParameterNames().isEmpty()) {
+            classFile.signature(types.classSignature());
+        }
+
+        for (PropertyData property : builderData.properties()) {
+            classFile.field(
+                    ClassFileWriter.ACC_PRIVATE,
+                    BuilderWriter.prefixFieldName(property.name()),
+                    types.descriptor(property.type()),
+                    types.generic(property.type()) ? types.signature(property.type()) : null
+            );
+        }
+
+        classFile.method(
+                ClassFileWriter.ACC_PUBLIC,
+                CONSTRUCTOR,
+                "()V",
+                null,
+                List.of(),
+                new ClassFileWriter.Code(1, 1)
+                        .op(ClassFileWriter.ALOAD_0)
+                        .op(ClassFileWriter.INVOKESPECIAL, classFile.methodConstant(OBJECT, CONSTRUCTOR, "()V"))
+                        .op(ClassFileWriter.RETURN)
+        );
+
+        for (PropertyData property : builderData.properties()) {
+            var descriptor = types.descriptor(property.type());
+            var slots = slots(descriptor);
+            classFile.method(
+                    ClassFileWriter.ACC_PUBLIC,
+                    property.name(),
+                    "(" + descriptor + ")" + builderDescriptor,
+                    types.generic(property.type()) ? "(" + types.signature(property.type()) + ")" + builderDescriptor : null,
+                    List.of(property.name()),
+                    new ClassFileWriter.Code(1 + slots, 1 + slots)
+                            .op(ClassFileWriter.ALOAD_0)
+                            .load(descriptor.charAt(0), 1)
+                            .op(ClassFileWriter.PUTFIELD, classFile.fieldConstant(builderInternalName, BuilderWriter.prefixFieldName(property.name()), descriptor))
+                            .op(ClassFileWriter.ALOAD_0)
+                            .op(ClassFileWriter.ARETURN)
+            );
+        }
+
+        var constructorDescriptor = builderData.properties()
+                .stream()
+                .map(property -> types.descriptor(property.type()))
+                .collect(Collectors.joining("", "(", ")V"));
+        var argumentSlots = builderData.properties()
+                .stream()
+                .mapToInt(property -> slots(types.descriptor(property.type())))
+                .sum();
+        var build = new ClassFileWriter.Code(3 + argumentSlots, 1)
+                .op(ClassFileWriter.NEW, classFile.classConstant(builtInternalName))
+                .op(ClassFileWriter.DUP);
+        for (PropertyData property : builderData.properties()) {
+            build.op(ClassFileWriter.ALOAD_0)
+                    .op(ClassFileWriter.GETFIELD, classFile.fieldConstant(
+                            builderInternalName,
+                            BuilderWriter.prefixFieldName(property.name()),
+                            types.descriptor(property.type())
+                    ));
+        }
+        build.op(ClassFileWriter.INVOKESPECIAL, classFile.methodConstant(builtInternalName, CONSTRUCTOR, constructorDescriptor))
+                .op(ClassFileWriter.ARETURN);
+        classFile.method(
+                0,
+                "build",
+                "()" + types.descriptor(builtClassTypeName),
+                types.generic(builtClassTypeName) ? "()" + types.signature(builtClassTypeName) : null,
+                List.of(),
+                build
+        );
+        return classFile.toByteArray();
+    }
+
+    private static int slots(String descriptor) {
+        return descriptor.equals("J") || descriptor.equals("D") ? 2 : 1;
+    }
+
+    private static ClassName rawClassName(TypeName typeName) {
+        return typeName instanceof ParameterizedTypeName parameterizedTypeName
+                ? parameterizedTypeName.rawType
+                : (ClassName) typeName;
+    }
+
+    private static String internalName(ClassName className) {
+        return className.reflectionName().replace('.', '/');
+    }
+
+    private static class Types {
+        private final Map<String, TypeVariableName> typeVariables;
+        private final BuilderData builderData;
+
+        Types(BuilderData builderData) {
+            this.builderData = builderData;
+            this.typeVariables = builderData.typeParameterNames()
+                    .stream()
+                    .collect(Collectors.toMap(typeVariable -> typeVariable.name, Function.identity()));
+        }
+
+        String descriptor(TypeName typeName) {
+            if (typeName.isPrimitive()) {
+                return primitiveDescriptor(typeName);
+            }
+            if (typeName instanceof ArrayTypeName arrayTypeName) {
+                return "[" + descriptor(arrayTypeName.componentType);
+            }
+            if (typeName instanceof TypeVariableName typeVariableName) {
+                var declared = typeVariables.getOrDefault(typeVariableName.name, typeVariableName);
+                return declared.bounds.isEmpty() ? "L" + OBJECT + ";" : descriptor(declared.bounds.get(0));
+            }
+            return "L" + internalName(rawClassName(typeName)) + ";";
+        }
+
+        String signature(TypeName typeName) {
+            if (typeName.isPrimitive()) {
+                return primitiveDescriptor(typeName);
+            }
+            if (typeName instanceof ArrayTypeName arrayTypeName) {
+                return "[" + signature(arrayTypeName.componentType);
+            }
+            if (typeName instanceof TypeVariableName typeVariableName) {
+                return "T" + typeVariableName.name + ";";
+            }
+            if (typeName instanceof WildcardTypeName wildcardTypeName) {
+                if (!wildcardTypeName.lowerBounds.isEmpty()) {
+                    return "-" + signature(wildcardTypeName.lowerBounds.get(0));
+                }
+                var upperBound = wildcardTypeName.upperBounds.get(0);
+                return upperBound.equals(TypeName.OBJECT) ? "*" : "+" + signature(upperBound);
+            }
+            if (typeName instanceof ParameterizedTypeName parameterizedTypeName) {
+                return parameterizedTypeName.typeArguments
+                        .stream()
+                        .map(this::signature)
+                        .collect(Collectors.joining("", "L" + internalName(parameterizedTypeName.rawType) + "<", ">;"));
+            }
+            return "L" + internalName((ClassName) typeName) + ";";
+        }
+
+        String classSignature() {
+            var signature = new StringBuilder("<");
+            for (TypeVariableName typeVariable : builderData.typeParameterNames()) {
+                signature.append(typeVariable.name);
+                if (typeVariable.bounds.isEmpty()) {
+                    signature.append(":L").append(OBJECT).append(';');
+                }
+                for (int i = 0; i < typeVariable.bounds.size(); i++) {
+                    var bound = typeVariable.bounds.get(i);
+                    signature.append(i == 0 && interfaceBound(bound) ? "::" : ":").append(signature(bound));
+                }
+            }
+            return signature.append(">L").append(OBJECT).append(';').toString();
+        }
+
+        private boolean interfaceBound(TypeName bound) {
+            return !(bound instanceof TypeVariableName) && builderData.interfaceBounds().contains(rawClassName(bound));
+        }
+
+        boolean generic(TypeName typeName) {
+            if (typeName instanceof TypeVariableName || typeName instanceof ParameterizedTypeName) {
+                return true;
+            }
+            return typeName instanceof ArrayTypeName arrayTypeName && generic(arrayTypeName.componentType);
+        }
+
+        private static String primitiveDescriptor(TypeName typeName) {
+            if (typeName.equals(TypeName.BOOLEAN)) {
+                return "Z";
+            }
+            if (typeName.equals(TypeName.BYTE)) {
+                return "B";
+            }
+            if (typeName.equals(TypeName.SHORT)) {
+                return "S";
+            }
+            if (typeName.equals(TypeName.CHAR)) {
+                return "C";
+            }
+            if (typeName.equals(TypeName.LONG)) {
+                return "J";
+            }
+            if (typeName.equals(TypeName.FLOAT)) {
+                return "F";
+            }
+            if (typeName.equals(TypeName.DOUBLE)) {
+                return "D";
+            }
+            return "I";
+        }
+    }
+}
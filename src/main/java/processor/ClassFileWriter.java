@@ -0,0 +1,236 @@
+package processor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class ClassFileWriter {
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PRIVATE = 0x0002;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    static final int ALOAD_0 = 0x2a;
+    static final int DUP = 0x59;
+    static final int NEW = 0xbb;
+    static final int GETFIELD = 0xb4;
+    static final int PUTFIELD = 0xb5;
+    static final int INVOKESPECIAL = 0xb7;
+    static final int ARETURN = 0xb0;
+    static final int RETURN = 0xb1;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private final ByteArrayOutputStream constantPoolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream constantPool = new DataOutputStream(constantPoolBytes);
+    private final Map<String, Integer> constants = new HashMap<>();
+    private final List<byte[]> fields = new ArrayList<>();
+    private final List<byte[]> methods = new ArrayList<>();
+    private final int majorVersion;
+    private final int access;
+    private final int thisClass;
+    private final int superClass;
+    private int nextConstant = 1;
+    private String signature;
+
+    ClassFileWriter(int majorVersion, int access, String internalName, String superName) {
+        this.majorVersion = majorVersion;
+        this.access = access;
+        this.thisClass = classConstant(internalName);
+        this.superClass = classConstant(superName);
+    }
+
+    void signature(String signature) {
+        this.signature = signature;
+    }
+
+    void field(int access, String name, String descriptor, String signature) {
+        var field = new Output();
+        field.u2(access).u2(utf8(name)).u2(utf8(descriptor));
+        if (signature == null) {
+            field.u2(0);
+        } else {
+            field.u2(1).u2(utf8("Signature")).u4(2).u2(utf8(signature));
+        }
+        fields.add(field.toByteArray());
+    }
+
+    void method(int access, String name, String descriptor, String signature, List<String> parameterNames, Code code) {
+        var method = new Output();
+        var attributes = 1 + (signature == null ? 0 : 1) + (parameterNames.isEmpty() ? 0 : 1);
+        method.u2(access).u2(utf8(name)).u2(utf8(descriptor)).u2(attributes);
+        var bytecode = code.bytes.toByteArray();
+        method.u2(utf8("Code"))
+                .u4(12 + bytecode.length)
+                .u2(code.maxStack)
+                .u2(code.maxLocals)
+                .u4(bytecode.length)
+                .bytes(bytecode)
+                .u2(0)
+                .u2(0);
+        if (signature != null) {
+            method.u2(utf8("Signature")).u4(2).u2(utf8(signature));
+        }
+        if (!parameterNames.isEmpty()) {
+            method.u2(utf8("MethodParameters")).u4(1 + 4 * parameterNames.size()).u1(parameterNames.size());
+            for (String parameterName : parameterNames) {
+                method.u2(utf8(parameterName)).u2(0);
+            }
+        }
+        methods.add(method.toByteArray());
+    }
+
+    int classConstant(String internalName) {
+        return constant("C" + internalName, () -> {
+            var nameIndex = utf8(internalName);
+            constantPool.writeByte(CONSTANT_CLASS);
+            constantPool.writeShort(nameIndex);
+        });
+    }
+
+    int fieldConstant(String owner, String name, String descriptor) {
+        return memberConstant(CONSTANT_FIELDREF, owner, name, descriptor);
+    }
+
+    int methodConstant(String owner, String name, String descriptor) {
+        return memberConstant(CONSTANT_METHODREF, owner, name, descriptor);
+    }
+
+    byte[] toByteArray() {
+        var signatureName = signature == null ? 0 : utf8("Signature");
+        var signatureIndex = signature == null ? 0 : utf8(signature);
+        var classFile = new Output();
+        classFile.u4(MAGIC)
+                .u2(0)
+                .u2(majorVersion)
+                .u2(nextConstant)
+                .bytes(constantPoolBytes.toByteArray())
+                .u2(access)
+                .u2(thisClass)
+                .u2(superClass)
+                .u2(0)
+                .u2(fields.size());
+        fields.forEach(classFile::bytes);
+        classFile.u2(methods.size());
+        methods.forEach(classFile::bytes);
+        if (signature == null) {
+            classFile.u2(0);
+        } else {
+            classFile.u2(1).u2(signatureName).u4(2).u2(signatureIndex);
+        }
+        return classFile.toByteArray();
+    }
+
+    private int memberConstant(int tag, String owner, String name, String descriptor) {
+        return constant(tag + owner + "." + name + ":" + descriptor, () -> {
+            var classIndex = classConstant(owner);
+            var nameAndTypeIndex = constant("N" + name + ":" + descriptor, () -> {
+                var nameIndex = utf8(name);
+                var descriptorIndex = utf8(descriptor);
+                constantPool.writeByte(CONSTANT_NAME_AND_TYPE);
+                constantPool.writeShort(nameIndex);
+                constantPool.writeShort(descriptorIndex);
+            });
+            constantPool.writeByte(tag);
+            constantPool.writeShort(classIndex);
+            constantPool.writeShort(nameAndTypeIndex);
+        });
+    }
+
+    private int utf8(String value) {
+        return constant("U" + value, () -> {
+            constantPool.writeByte(CONSTANT_UTF8);
+            constantPool.writeUTF(value);
+        });
+    }
+
+    private int constant(String key, ConstantWriter writer) {
+        var existing = constants.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            writer.write();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        var index = nextConstant++;
+        constants.put(key, index);
+        return index;
+    }
+
+    private interface ConstantWriter {
+        void write() throws IOException;
+    }
+
+    static class Code {
+        private final Output bytes = new Output();
+        private final int maxStack;
+        private final int maxLocals;
+
+        Code(int maxStack, int maxLocals) {
+            this.maxStack = maxStack;
+            this.maxLocals = maxLocals;
+        }
+
+        Code op(int opcode) {
+            bytes.u1(opcode);
+            return this;
+        }
+
+        Code op(int opcode, int operand) {
+            bytes.u1(opcode).u2(operand);
+            return this;
+        }
+
+        Code load(char descriptor, int slot) {
+            var opcode = switch (descriptor) {
+                case 'J' -> 0x16;
+                case 'F' -> 0x17;
+                case 'D' -> 0x18;
+                case 'L', '[' -> 0x19;
+                default -> 0x15;
+            };
+            bytes.u1(opcode).u1(slot);
+            return this;
+        }
+    }
+
+    private static class Output {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        Output u1(int value) {
+            bytes.write(value);
+            return this;
+        }
+
+        Output u2(int value) {
+            bytes.write(value >>> 8);
+            bytes.write(value);
+            return this;
+        }
+
+        Output u4(int value) {
+            return u2(value >>> 16).u2(value);
+        }
+
+        Output bytes(byte[] value) {
+            bytes.writeBytes(value);
+            return this;
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package processor;
+
+import com.squareup.javapoet.*;
+
+import javax.lang.model.element.Modifier;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class CodecWriter {
+    static final String SUFFIX = "Codec";
+    private static final String VALUES_SUFFIX = "_VALUES";
+
+    private enum Target {
+        BUFFER(ByteBuffer.class, "put", "get", false),
+        STREAM(DataOutput.class, "write", "read", true);
+
+        private final Class<?> outputClass;
+        private final String writePrefix;
+        private final String readPrefix;
+        private final boolean throwsIOException;
+
+        Target(Class<?> outputClass, String writePrefix, String readPrefix, boolean throwsIOException) {
+            this.outputClass = outputClass;
+            this.writePrefix = writePrefix;
+            this.readPrefix = readPrefix;
+            this.throwsIOException = throwsIOException;
+        }
+
+        Class<?> inputClass() {
+            return this == BUFFER ? ByteBuffer.class : DataInput.class;
+        }
+
+        String write(String suffix) {
+            return this == BUFFER && suffix.equals("Byte") ? writePrefix : writePrefix + suffix;
+        }
+
+        String read(String suffix) {
+            return this == BUFFER && suffix.equals("Byte") ? readPrefix : readPrefix + suffix;
+        }
+    }
+
+    private enum Helper { VAR_LONG, STRING, BYTES }
+
+    private static final Map<TypeName, String> FIXED_SUFFIXES = Map.of(
+            TypeName.BYTE, "Byte",
+            TypeName.SHORT, "Short",
+            TypeName.CHAR, "Char",
+            TypeName.FLOAT, "Float",
+            TypeName.DOUBLE, "Double"
+    );
+
+    static TypeSpec buildCodecClass(BuilderData builderData) {
+        var codecName = builderData.classNameTypePair().getFirst() + SUFFIX;
+        var builtClassTypeName = builderData.classNameTypePair().getSecond();
+        var typeVariables = builderData.typeParameterNames();
+        var helpers = EnumSet.noneOf(Helper.class);
+        var codecSpecBuilder = TypeSpec.classBuilder(codecName)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build());
+        builderData.properties()
+                .stream()
+                .filter(property -> property.valueKind() == ValueKind.ENUM)
+                .map(PropertyData::type)
+                .distinct()
+                .forEach(enumType -> codecSpecBuilder.addField(FieldSpec.builder(ArrayTypeName.of(enumType), enumValuesConstant(enumType))
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$T.values()", enumType)
+                        .build()));
+        for (Target target : Target.values()) {
+            var writeMethod = MethodSpec.methodBuilder("write")
+                    .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                    .addTypeVariables(typeVariables)
+                    .addParameter(builtClassTypeName, "value")
+                    .addParameter(target.outputClass, "out");
+            var readMethod = MethodSpec.methodBuilder("read")
+                    .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                    .addTypeVariables(typeVariables)
+                    .addParameter(target.inputClass(), "in")
+                    .returns(builtClassTypeName);
+            if (target.throwsIOException) {
+                writeMethod.addException(IOException.class);
+                readMethod.addException(IOException.class);
+            }
+            for (PropertyData property : builderData.properties()) {
+                writeMethod.addCode(writeProperty(target, property, helpers));
+                readMethod.addCode(readProperty(target, property, helpers));
+            }
+            var constructorArguments = builderData.properties()
+                    .stream()
+                    .map(property -> BuilderWriter.prefixFieldName(property.name()))
+                    .collect(Collectors.joining(", "));
+            readMethod.addStatement("return new $T($L)", builtClassTypeName, constructorArguments);
+            codecSpecBuilder.addMethod(writeMethod.build());
+            codecSpecBuilder.addMethod(readMethod.build());
+        }
+        for (Target target : Target.values()) {
+            addHelpers(codecSpecBuilder, target, helpers);
+        }
+        return codecSpecBuilder.build();
+    }
+
+    private static CodeBlock writeProperty(Target target, PropertyData property, Set<Helper> helpers) {
+        var local = BuilderWriter.prefixFieldName(property.name());
+        var code = CodeBlock.builder()
+                .addStatement("$T $L = value.$L()", property.type(), local, property.accessor());
+        switch (property.valueKind()) {
+            case PRIMITIVE -> code.add(writePrimitive(target, property.type(), local, helpers));
+            case BOXED -> code.beginControlFlow("if ($L == null)", local)
+                    .addStatement("out.$L((byte) 0)", target.write("Byte"))
+                    .nextControlFlow("else")
+                    .addStatement("out.$L((byte) 1)", target.write("Byte"))
+                    .add(writePrimitive(target, property.type().unbox(), local, helpers))
+                    .endControlFlow();
+            case STRING -> {
+                helpers.add(Helper.VAR_LONG);
+                helpers.add(Helper.STRING);
+                code.addStatement("writeString(out, $L)", local);
+            }
+            case BYTES -> {
+                helpers.add(Helper.VAR_LONG);
+                helpers.add(Helper.BYTES);
+                code.addStatement("writeBytes(out, $L)", local);
+            }
+            case ENUM -> {
+                helpers.add(Helper.VAR_LONG);
+                code.addStatement("writeVarLong(out, $L == null ? 0 : $L.ordinal() + 1)", local, local);
+            }
+            case AUTO_BUILDER -> code.beginControlFlow("if ($L == null)", local)
+                    .addStatement("out.$L((byte) 0)", target.write("Byte"))
+                    .nextControlFlow("else")
+                    .addStatement("out.$L((byte) 1)", target.write("Byte"))
+                    .addStatement("$T.write($L, out)", nestedCodecClassName(property.type()), local)
+                    .endControlFlow();
+            default -> throw new IllegalStateException("Tipo sem codec: " + property.type());
+        }
+        return code.build();
+    }
+
+    private static CodeBlock writePrimitive(Target target, TypeName typeName, String local, Set<Helper> helpers) {
+        if (typeName.equals(TypeName.BOOLEAN)) {
+            return CodeBlock.builder().addStatement("out.$L((byte) ($L ? 1 : 0))", target.write("Byte"), local).build();
+        }
+        if (typeName.equals(TypeName.INT) || typeName.equals(TypeName.LONG)) {
+            helpers.add(Helper.VAR_LONG);
+            return CodeBlock.builder().addStatement("writeVarLong(out, $L)", local).build();
+        }
+        var suffix = FIXED_SUFFIXES.get(typeName);
+        if (target == Target.BUFFER && suffix.equals("Byte")) {
+            return CodeBlock.builder().addStatement("out.put($L)", local).build();
+        }
+        return CodeBlock.builder().addStatement("out.$L($L)", target.write(suffix), local).build();
+    }
+
+    private static CodeBlock readProperty(Target target, PropertyData property, Set<Helper> helpers) {
+        var local = BuilderWriter.prefixFieldName(property.name());
+        var type = property.type();
+        var code = CodeBlock.builder();
+        switch (property.valueKind()) {
+            case PRIMITIVE -> code.addStatement("$T $L = $L", type, local, readPrimitive(target, type, helpers));
+            case BOXED -> code.addStatement(
+                    "$T $L = in.$L() == 0 ? null : $T.valueOf($L)",
+                    type,
+                    local,
+                    target.read("Byte"),
+                    type,
+                    readPrimitive(target, type.unbox(), helpers)
+            );
+            case STRING -> code.addStatement("$T $L = readString(in)", type, local);
+            case BYTES -> code.addStatement("$T $L = readBytes(in)", type, local);
+            case ENUM -> {
+                var ordinal = local + "Ordinal";
+                code.addStatement("int $L = (int) readVarLong(in)", ordinal)
+                        .addStatement("$T $L = $L == 0 ? null : $L[$L - 1]", type, local, ordinal, enumValuesConstant(type), ordinal);
+            }
+            case AUTO_BUILDER -> code.addStatement(
+                    "$T $L = in.$L() == 0 ? null : $T.read(in)",
+                    type,
+                    local,
+                    target.read("Byte"),
+                    nestedCodecClassName(type)
+            );
+            default -> throw new IllegalStateException("Tipo sem codec: " + type);
+        }
+        return code.build();
+    }
+
+    private static CodeBlock readPrimitive(Target target, TypeName typeName, Set<Helper> helpers) {
+        if (typeName.equals(TypeName.BOOLEAN)) {
+            return CodeBlock.of("in.$L() != 0", target.read("Byte"));
+        }
+        if (typeName.equals(TypeName.INT)) {
+            helpers.add(Helper.VAR_LONG);
+            return CodeBlock.of("(int) readVarLong(in)");
+        }
+        if (typeName.equals(TypeName.LONG)) {
+            helpers.add(Helper.VAR_LONG);
+            return CodeBlock.of("readVarLong(in)");
+        }
+        return CodeBlock.of("in.$L()", target.read(FIXED_SUFFIXES.get(typeName)));
+    }
+
+    private static void addHelpers(TypeSpec.Builder codecSpecBuilder, Target target, Set<Helper> helpers) {
+        var writeByte = target.write("Byte");
+        var readByte = target.read("Byte");
+        if (helpers.contains(Helper.VAR_LONG)) {
+            codecSpecBuilder.addMethod(helperMethod("writeVarLong", target)
+                    .addParameter(target.outputClass, "out")
+                    .addParameter(long.class, "value")
+                    .addStatement("long zigZag = (value << 1) ^ (value >> 63)")
+                    .beginControlFlow("while ((zigZag & ~0x7FL) != 0)")
+                    .addStatement("out.$L((byte) ((zigZag & 0x7F) | 0x80))", writeByte)
+                    .addStatement("zigZag >>>= 7")
+                    .endControlFlow()
+                    .addStatement("out.$L((byte) zigZag)", writeByte)
+                    .build());
+            codecSpecBuilder.addMethod(helperMethod("readVarLong", target)
+                    .addParameter(target.inputClass(), "in")
+                    .returns(long.class)
+                    .addStatement("long zigZag = 0")
+                    .beginControlFlow("for (int shift = 0; shift < 64; shift += 7)")
+                    .addStatement("byte next = in.$L()", readByte)
+                    .addStatement("zigZag |= (long) (next & 0x7F) << shift")
+                    .beginControlFlow("if (next >= 0)")
+                    .addStatement("return (zigZag >>> 1) ^ -(zigZag & 1)")
+                    .endControlFlow()
+                    .endControlFlow()
+                    .addStatement("throw new $T($S)", IllegalArgumentException.class, "Varint malformado")
+                    .build());
+        }
+        if (helpers.contains(Helper.STRING)) {
+            codecSpecBuilder.addMethod(helperMethod("writeString", target)
+                    .addParameter(target.outputClass, "out")
+                    .addParameter(String.class, "value")
+                    .beginControlFlow("if (value == null)")
+                    .addStatement("writeVarLong(out, 0)")
+                    .addStatement("return")
+                    .endControlFlow()
+                    .addStatement("byte[] bytes = value.getBytes($T.UTF_8)", StandardCharsets.class)
+                    .addStatement("writeVarLong(out, bytes.length + 1L)")
+                    .addStatement("out.$L(bytes)", target == Target.BUFFER ? "put" : "write")
+                    .build());
+            var readString = helperMethod("readString", target)
+                    .addParameter(target.inputClass(), "in")
+                    .returns(String.class)
+                    .addStatement("int length = readLength(in)")
+                    .beginControlFlow("if (length < 0)")
+                    .addStatement("return null")
+                    .endControlFlow();
+            if (target == Target.BUFFER) {
+                readString.beginControlFlow("if (in.hasArray())")
+                        .addStatement("String value = new String(in.array(), in.arrayOffset() + in.position(), length, $T.UTF_8)", StandardCharsets.class)
+                        .addStatement("in.position(in.position() + length)")
+                        .addStatement("return value")
+                        .endControlFlow();
+            }
+            readString.addStatement("byte[] bytes = new byte[length]")
+                    .addStatement(target == Target.BUFFER ? "in.get(bytes)" : "in.readFully(bytes)")
+                    .addStatement("return new String(bytes, $T.UTF_8)", StandardCharsets.class);
+            codecSpecBuilder.addMethod(readString.build());
+        }
+        if (helpers.contains(Helper.BYTES)) {
+            codecSpecBuilder.addMethod(helperMethod("writeBytes", target)
+                    .addParameter(target.outputClass, "out")
+                    .addParameter(byte[].class, "value")
+                    .beginControlFlow("if (value == null)")
+                    .addStatement("writeVarLong(out, 0)")
+                    .addStatement("return")
+                    .endControlFlow()
+                    .addStatement("writeVarLong(out, value.length + 1L)")
+                    .addStatement("out.$L(value)", target == Target.BUFFER ? "put" : "write")
+                    .build());
+            codecSpecBuilder.addMethod(helperMethod("readBytes", target)
+                    .addParameter(target.inputClass(), "in")
+                    .returns(byte[].class)
+                    .addStatement("int length = readLength(in)")
+                    .beginControlFlow("if (length < 0)")
+                    .addStatement("return null")
+                    .endControlFlow()
+                    .addStatement("byte[] value = new byte[length]")
+                    .addStatement(target == Target.BUFFER ? "in.get(value)" : "in.readFully(value)")
+                    .addStatement("return value")
+                    .build());
+        }
+        if (helpers.contains(Helper.STRING) || helpers.contains(Helper.BYTES)) {
+            var readLength = helperMethod("readLength", target)
+                    .addParameter(target.inputClass(), "in")
+                    .returns(int.class)
+                    .addStatement("long length = readVarLong(in) - 1")
+                    .beginControlFlow("if (length < -1 || length > Integer.MAX_VALUE)")
+                    .addStatement("throw new $T($L + length)", IllegalArgumentException.class, BuilderWriter.stringLiteral("Tamanho inválido: "))
+                    .endControlFlow();
+            if (target == Target.BUFFER) {
+                readLength.beginControlFlow("if (length > in.remaining())")
+                        .addStatement("throw new $T()", BufferUnderflowException.class)
+                        .endControlFlow();
+            }
+            codecSpecBuilder.addMethod(readLength.addStatement("return (int) length").build());
+        }
+    }
+
+    private static MethodSpec.Builder helperMethod(String name, Target target) {
+        var method = MethodSpec.methodBuilder(name).addModifiers(Modifier.PRIVATE, Modifier.STATIC);
+        if (target.throwsIOException) {
+            method.addException(IOException.class);
+        }
+        return method;
+    }
+
+    private static ClassName nestedCodecClassName(TypeName typeName) {
+        var className = typeName instanceof ParameterizedTypeName parameterizedTypeName
+                ? parameterizedTypeName.rawType
+                : (ClassName) typeName;
+        return ClassName.get(className.packageName(), className.simpleName() + SUFFIX);
+    }
+
+    private static String enumValuesConstant(TypeName enumType) {
+        var className = (ClassName) enumType;
+        return String.join("_", className.simpleNames()).toUpperCase(Locale.ROOT) + VALUES_SUFFIX;
+    }
+}
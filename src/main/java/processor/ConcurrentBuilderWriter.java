@@ -0,0 +1,202 @@
+package processor;
+
+import com.squareup.javapoet.*;
+
+import javax.lang.model.element.Modifier;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+class ConcurrentBuilderWriter {
+    static final String SUFFIX = "ConcurrentBuilder";
+    static final int MAX_PARAMETERS = Long.SIZE;
+    private static final String HANDLE_SUFFIX = "_HANDLE";
+
+    static TypeSpec buildConcurrentBuilderClass(BuilderData builderData) {
+        var concurrentBuilderName = builderData.classNameTypePair().getFirst() + SUFFIX;
+        var concurrentBuilderClassName = ClassName.get(builderData.packageName(), concurrentBuilderName);
+        var typeVariables = builderData.typeParameterNames();
+        var concurrentBuilderTypeName = BuilderWriter.parameterizedTypeName(concurrentBuilderClassName, typeVariables);
+        var builtClassTypeName = builderData.classNameTypePair().getSecond();
+        var nodeClassName = concurrentBuilderClassName.nestedClass("Node");
+        var properties = builderData.properties();
+        var completeMask = properties.size() == MAX_PARAMETERS ? -1L : (1L << properties.size()) - 1;
+
+        var concurrentBuilderSpecBuilder = TypeSpec.classBuilder(concurrentBuilderName)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addTypeVariables(typeVariables)
+                .addField(FieldSpec.builder(long.class, "COMPLETE_MASK", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$LL", completeMask)
+                        .build())
+                .addField(FieldSpec.builder(nodeClassName, "COMPLETED", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T(null, null)", nodeClassName)
+                        .build())
+                .addField(FieldSpec.builder(VarHandle.class, "CLAIMED", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL).build())
+                .addField(FieldSpec.builder(VarHandle.class, "READY", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL).build())
+                .addField(FieldSpec.builder(VarHandle.class, "CALLBACKS", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL).build());
+        var handleNames = BuilderWriter.constantNames(properties, HANDLE_SUFFIX);
+        for (PropertyData property : properties) {
+            concurrentBuilderSpecBuilder.addField(FieldSpec.builder(VarHandle.class, handleNames.get(property.name()), Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL).build());
+        }
+
+        var staticBlock = CodeBlock.builder()
+                .beginControlFlow("try")
+                .addStatement("$T lookup = $T.lookup()", MethodHandles.Lookup.class, MethodHandles.class)
+                .addStatement("CLAIMED = lookup.findVarHandle($T.class, $S, long.class)", concurrentBuilderClassName, "claimed")
+                .addStatement("READY = lookup.findVarHandle($T.class, $S, long.class)", concurrentBuilderClassName, "ready")
+                .addStatement("CALLBACKS = lookup.findVarHandle($T.class, $S, $T.class)", concurrentBuilderClassName, "callbacks", nodeClassName);
+        for (PropertyData property : properties) {
+            staticBlock.addStatement(
+                    "$L = lookup.findVarHandle($T.class, $S, $T.class)",
+                    handleNames.get(property.name()),
+                    concurrentBuilderClassName,
+                    BuilderWriter.prefixFieldName(property.name()),
+                    erasure(property.type(), typeVariables)
+            );
+        }
+        staticBlock.nextControlFlow("catch ($T exception)", ReflectiveOperationException.class)
+                .addStatement("throw new $T(exception)", ExceptionInInitializerError.class)
+                .endControlFlow();
+        concurrentBuilderSpecBuilder.addStaticBlock(staticBlock.build());
+
+        for (PropertyData property : properties) {
+            concurrentBuilderSpecBuilder.addField(property.type(), BuilderWriter.prefixFieldName(property.name()), Modifier.PRIVATE);
+        }
+        concurrentBuilderSpecBuilder.addField(long.class, "claimed", Modifier.PRIVATE, Modifier.VOLATILE);
+        concurrentBuilderSpecBuilder.addField(long.class, "ready", Modifier.PRIVATE, Modifier.VOLATILE);
+        concurrentBuilderSpecBuilder.addField(builtClassTypeName, "result", Modifier.PRIVATE, Modifier.VOLATILE);
+        concurrentBuilderSpecBuilder.addField(Throwable.class, "failure", Modifier.PRIVATE, Modifier.VOLATILE);
+        concurrentBuilderSpecBuilder.addField(nodeClassName, "callbacks", Modifier.PRIVATE, Modifier.VOLATILE);
+
+        for (int i = 0; i < properties.size(); i++) {
+            var property = properties.get(i);
+            concurrentBuilderSpecBuilder.addMethod(MethodSpec.methodBuilder(property.name())
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(property.type(), property.name())
+                    .returns(concurrentBuilderTypeName)
+                    .beginControlFlow("if (((long) CLAIMED.getAndBitwiseOr(this, $LL) & $LL) != 0)", 1L << i, 1L << i)
+                    .addStatement(
+                            "throw new $T($L)",
+                            IllegalStateException.class,
+                            BuilderWriter.stringLiteral("Parâmetro " + property.name() + " informado mais de uma vez")
+                    )
+                    .endControlFlow()
+                    .addStatement("$L.setRelease(this, $L)", handleNames.get(property.name()), property.name())
+                    .beginControlFlow("if (((long) READY.getAndBitwiseOr(this, $LL) | $LL) == COMPLETE_MASK)", 1L << i, 1L << i)
+                    .addStatement("complete()")
+                    .endControlFlow()
+                    .addStatement("return this")
+                    .build());
+        }
+
+        var arguments = CodeBlock.join(
+                properties.stream()
+                        .map(property -> CodeBlock.of("this.$L", BuilderWriter.prefixFieldName(property.name())))
+                        .toList(),
+                ", "
+        );
+        concurrentBuilderSpecBuilder.addMethod(MethodSpec.methodBuilder("complete")
+                .addModifiers(Modifier.PRIVATE)
+                .beginControlFlow("try")
+                .addStatement("this.result = new $T($L)", builtClassTypeName, arguments)
+                .nextControlFlow("catch ($T exception)", Throwable.class)
+                .addStatement("this.failure = exception")
+                .addStatement("throw exception")
+                .nextControlFlow("finally")
+                .addStatement("$T pending = ($T) CALLBACKS.getAndSet(this, COMPLETED)", nodeClassName, nodeClassName)
+                .addStatement("$T ordered = null", nodeClassName)
+                .beginControlFlow("while (pending != null)")
+                .addStatement("$T next = pending.next", nodeClassName)
+                .addStatement("pending.next = ordered")
+                .addStatement("ordered = pending")
+                .addStatement("pending = next")
+                .endControlFlow()
+                .beginControlFlow("for (; ordered != null; ordered = ordered.next)")
+                .addStatement("dispatch(ordered)")
+                .endControlFlow()
+                .endControlFlow()
+                .build());
+
+        concurrentBuilderSpecBuilder.addMethod(MethodSpec.methodBuilder("tryBuild")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(builtClassTypeName)
+                .addStatement("$T failure = this.failure", Throwable.class)
+                .beginControlFlow("if (failure != null)")
+                .addStatement("throw new $T($S, failure)", IllegalStateException.class, "Falha ao construir " + builderData.classNameTypePair().getFirst())
+                .endControlFlow()
+                .addStatement("return this.result")
+                .build());
+
+        var consumerTypeName = ParameterizedTypeName.get(ClassName.get(Consumer.class), WildcardTypeName.supertypeOf(builtClassTypeName));
+        var failureConsumerTypeName = ParameterizedTypeName.get(ClassName.get(Consumer.class), WildcardTypeName.supertypeOf(Throwable.class));
+        concurrentBuilderSpecBuilder.addMethod(MethodSpec.methodBuilder("onComplete")
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(consumerTypeName, "action")
+                .returns(concurrentBuilderTypeName)
+                .addStatement("return onComplete(action, null)")
+                .build());
+        concurrentBuilderSpecBuilder.addMethod(MethodSpec.methodBuilder("onComplete")
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(consumerTypeName, "action")
+                .addParameter(failureConsumerTypeName, "onFailure")
+                .returns(concurrentBuilderTypeName)
+                .addStatement("$T node = new $T($T.requireNonNull(action, $S), onFailure)", nodeClassName, nodeClassName, Objects.class, "action")
+                .addStatement("$T head", nodeClassName)
+                .beginControlFlow("do")
+                .addStatement("head = this.callbacks")
+                .beginControlFlow("if (head == COMPLETED)")
+                .addStatement("dispatch(node)")
+                .addStatement("return this")
+                .endControlFlow()
+                .addStatement("node.next = head")
+                .endControlFlow("while (!CALLBACKS.compareAndSet(this, head, node))")
+                .addStatement("return this")
+                .build());
+
+        concurrentBuilderSpecBuilder.addMethod(MethodSpec.methodBuilder("dispatch")
+                .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked").build())
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(nodeClassName, "node")
+                .addStatement("$T failure = this.failure", Throwable.class)
+                .beginControlFlow("if (failure == null)")
+                .addStatement("(($T) node.action).accept(this.result)", consumerTypeName)
+                .nextControlFlow("else if (node.onFailure != null)")
+                .addStatement("node.onFailure.accept(failure)")
+                .endControlFlow()
+                .build());
+
+        var anyConsumerTypeName = ParameterizedTypeName.get(ClassName.get(Consumer.class), WildcardTypeName.subtypeOf(Object.class));
+        concurrentBuilderSpecBuilder.addType(TypeSpec.classBuilder("Node")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .addField(anyConsumerTypeName, "action", Modifier.FINAL)
+                .addField(failureConsumerTypeName, "onFailure", Modifier.FINAL)
+                .addField(nodeClassName, "next")
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addParameter(anyConsumerTypeName, "action")
+                        .addParameter(failureConsumerTypeName, "onFailure")
+                        .addStatement("this.action = action")
+                        .addStatement("this.onFailure = onFailure")
+                        .build())
+                .build());
+        return concurrentBuilderSpecBuilder.build();
+    }
+
+    private static TypeName erasure(TypeName typeName, List<TypeVariableName> typeVariables) {
+        if (typeName instanceof ParameterizedTypeName parameterizedTypeName) {
+            return parameterizedTypeName.rawType;
+        }
+        if (typeName instanceof ArrayTypeName arrayTypeName) {
+            return ArrayTypeName.of(erasure(arrayTypeName.componentType, typeVariables));
+        }
+        if (typeName instanceof TypeVariableName typeVariableName) {
+            var declared = typeVariables.stream()
+                    .filter(typeVariable -> typeVariable.name.equals(typeVariableName.name))
+                    .findFirst()
+                    .orElse(typeVariableName);
+            return declared.bounds.isEmpty() ? TypeName.OBJECT : erasure(declared.bounds.get(0), typeVariables);
+        }
+        return typeName;
+    }
+}
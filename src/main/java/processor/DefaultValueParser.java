@@ -0,0 +1,208 @@
+package processor;
+
+import annotations.Default;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.TypeName;
+import utils.Check;
+
+import javax.lang.model.element.*;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import java.util.Optional;
+
+class DefaultValueParser {
+
+    static Optional<CodeBlock> parse(ProcessingContext context, VariableElement parameter, TypeElement parentElement, Default annotation) {
+        var hasValue = !annotation.value().isEmpty();
+        var hasConstant = !annotation.constant().isEmpty();
+        if (!Check.check(
+                context,
+                hasValue != hasConstant,
+                new Element[]{parameter},
+                "@Default do parâmetro %s exige exatamente um entre value e constant",
+                parameter.getSimpleName()
+        )) {
+            return Optional.empty();
+        }
+        return hasValue
+                ? parseLiteral(context, parameter, annotation.value())
+                : resolveConstant(context, parameter, parentElement, annotation.constant());
+    }
+
+    private static Optional<CodeBlock> parseLiteral(ProcessingContext context, VariableElement parameter, String value) {
+        var type = parameter.asType();
+        var literal = Optional.<CodeBlock>empty();
+        try {
+            literal = literal(context, type, value.strip());
+        } catch (IllegalArgumentException invalid) {
+            literal = Optional.empty();
+        }
+        Check.check(
+                context,
+                literal.isPresent(),
+                new Element[]{parameter},
+                "Valor padrão '%s' inválido para o parâmetro %s do tipo %s",
+                value,
+                parameter.getSimpleName(),
+                type
+        );
+        return literal;
+    }
+
+    private static Optional<CodeBlock> literal(ProcessingContext context, TypeMirror type, String value) {
+        var primitive = primitiveOf(context, type);
+        if (primitive != null) {
+            return primitiveLiteral(primitive.getKind(), value);
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return Optional.empty();
+        }
+        var element = (TypeElement) context.types().asElement(type);
+        if (element.getQualifiedName().contentEquals(String.class.getCanonicalName())) {
+            return Optional.of(BuilderWriter.stringLiteral(value));
+        }
+        if (element.getKind() == ElementKind.ENUM) {
+            return ElementFilter.fieldsIn(element.getEnclosedElements())
+                    .stream()
+                    .filter(field -> field.getKind() == ElementKind.ENUM_CONSTANT)
+                    .filter(field -> field.getSimpleName().contentEquals(value))
+                    .findFirst()
+                    .map(field -> CodeBlock.of("$T.$L", ClassName.get(element), field.getSimpleName()));
+        }
+        return Optional.empty();
+    }
+
+    private static PrimitiveType primitiveOf(ProcessingContext context, TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return (PrimitiveType) type;
+        }
+        try {
+            return context.types().unboxedType(type);
+        } catch (IllegalArgumentException notBoxed) {
+            return null;
+        }
+    }
+
+    private static Optional<CodeBlock> primitiveLiteral(TypeKind kind, String value) {
+        return switch (kind) {
+            case BOOLEAN -> value.equals("true") || value.equals("false")
+                    ? Optional.of(CodeBlock.of("$L", value))
+                    : Optional.empty();
+            case BYTE -> Optional.of(CodeBlock.of("($T) $L", TypeName.BYTE, Byte.parseByte(value)));
+            case SHORT -> Optional.of(CodeBlock.of("($T) $L", TypeName.SHORT, Short.parseShort(value)));
+            case INT -> Optional.of(CodeBlock.of("$L", Integer.parseInt(value)));
+            case LONG -> Optional.of(CodeBlock.of("$LL", Long.parseLong(stripSuffix(value, 'L'))));
+            case FLOAT -> {
+                var parsed = Float.parseFloat(value);
+                yield Float.isFinite(parsed) ? Optional.of(CodeBlock.of("$Lf", parsed)) : Optional.empty();
+            }
+            case DOUBLE -> {
+                var parsed = Double.parseDouble(value);
+                yield Double.isFinite(parsed) ? Optional.of(CodeBlock.of("$L", parsed)) : Optional.empty();
+            }
+            case CHAR -> value.length() == 1 ? Optional.of(charLiteral(value.charAt(0))) : Optional.empty();
+            default -> Optional.empty();
+        };
+    }
+
+    private static CodeBlock charLiteral(char value) {
+        if (value >= ' ' && value < 0x7f && value != '\'' && value != '\\') {
+            return CodeBlock.of("'$L'", value);
+        }
+        return CodeBlock.of("'\\u$L'", String.format("%04x", (int) value));
+    }
+
+    private static String stripSuffix(String value, char suffix) {
+        return value.endsWith(String.valueOf(suffix)) || value.endsWith(String.valueOf(Character.toLowerCase(suffix)))
+                ? value.substring(0, value.length() - 1)
+                : value;
+    }
+
+    private static Optional<CodeBlock> resolveConstant(ProcessingContext context, VariableElement parameter, TypeElement parentElement, String constant) {
+        var separator = constant.lastIndexOf('.');
+        var owner = separator < 0 ? parentElement : resolveType(context, parentElement, constant.substring(0, separator));
+        var fieldName = constant.substring(separator + 1);
+        var field = owner == null
+                ? Optional.<VariableElement>empty()
+                : ElementFilter.fieldsIn(context.elements().getAllMembers(owner))
+                        .stream()
+                        .filter(member -> member.getSimpleName().contentEquals(fieldName))
+                        .findFirst();
+        if (!Check.check(
+                context,
+                field.isPresent(),
+                new Element[]{parameter},
+                "Constante %s não encontrada para o parâmetro %s",
+                constant,
+                parameter.getSimpleName()
+        )) {
+            return Optional.empty();
+        }
+        var modifiers = field.get().getModifiers();
+        var valid = Check.check(
+                context,
+                modifiers.contains(Modifier.STATIC) && !modifiers.contains(Modifier.PRIVATE),
+                new Element[]{parameter},
+                "Constante %s deve ser static e não privada",
+                constant
+        ) && Check.check(
+                context,
+                context.types().isAssignable(field.get().asType(), parameter.asType()),
+                new Element[]{parameter},
+                "Constante %s do tipo %s não é atribuível ao parâmetro %s do tipo %s",
+                constant,
+                field.get().asType(),
+                parameter.getSimpleName(),
+                parameter.asType()
+        );
+        if (!valid) {
+            return Optional.empty();
+        }
+        var declaringType = (TypeElement) field.get().getEnclosingElement();
+        return Optional.of(CodeBlock.of("$T.$L", ClassName.get(declaringType), fieldName));
+    }
+
+    private static TypeElement resolveType(ProcessingContext context, TypeElement parentElement, String name) {
+        var qualified = context.elements().getTypeElement(name);
+        if (qualified != null) {
+            return qualified;
+        }
+        var parts = name.split("\\.");
+        var current = resolveSimpleName(context, parentElement, parts[0]);
+        for (int i = 1; i < parts.length && current != null; i++) {
+            current = findMemberType(current, parts[i]);
+        }
+        return current;
+    }
+
+    private static TypeElement resolveSimpleName(ProcessingContext context, TypeElement parentElement, String simpleName) {
+        for (Element scope = parentElement; scope != null; scope = scope.getEnclosingElement()) {
+            if (scope instanceof TypeElement typeElement) {
+                if (typeElement.getSimpleName().contentEquals(simpleName)) {
+                    return typeElement;
+                }
+                var member = findMemberType(typeElement, simpleName);
+                if (member != null) {
+                    return member;
+                }
+            } else if (scope instanceof PackageElement packageElement && !packageElement.isUnnamed()) {
+                var sibling = context.elements().getTypeElement(packageElement.getQualifiedName() + "." + simpleName);
+                if (sibling != null) {
+                    return sibling;
+                }
+            }
+        }
+        return context.elements().getTypeElement("java.lang." + simpleName);
+    }
+
+    private static TypeElement findMemberType(TypeElement typeElement, String simpleName) {
+        return ElementFilter.typesIn(typeElement.getEnclosedElements())
+                .stream()
+                .filter(member -> member.getSimpleName().contentEquals(simpleName))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,129 @@
+package processor;
+
+import com.squareup.javapoet.*;
+
+import javax.lang.model.element.Modifier;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class FlyweightWriter {
+    static final String SUFFIX = "Flyweight";
+    static final Set<String> RESERVED_NAMES = Set.of("wrap", "wrapIndex", "materialize");
+    private static final String OFFSET_SUFFIX = "_OFFSET";
+    private static final Map<TypeName, Slot> SLOTS = Map.of(
+            TypeName.BOOLEAN, new Slot(1, "get", "put"),
+            TypeName.BYTE, new Slot(1, "get", "put"),
+            TypeName.SHORT, new Slot(2, "getShort", "putShort"),
+            TypeName.CHAR, new Slot(2, "getChar", "putChar"),
+            TypeName.INT, new Slot(4, "getInt", "putInt"),
+            TypeName.FLOAT, new Slot(4, "getFloat", "putFloat"),
+            TypeName.LONG, new Slot(8, "getLong", "putLong"),
+            TypeName.DOUBLE, new Slot(8, "getDouble", "putDouble")
+    );
+
+    static boolean supports(TypeName typeName) {
+        return SLOTS.containsKey(typeName);
+    }
+
+    static TypeSpec buildFlyweightClass(BuilderData builderData) {
+        var flyweightName = builderData.classNameTypePair().getFirst() + SUFFIX;
+        var flyweightClassName = ClassName.get(builderData.packageName(), flyweightName);
+        var builtClassTypeName = builderData.classNameTypePair().getSecond();
+        var layout = layout(builderData.properties());
+        var offsetConstants = BuilderWriter.constantNames(builderData.properties(), OFFSET_SUFFIX);
+        var size = layout.isEmpty() ? 0 : align(
+                layout.get(layout.size() - 1).offset() + layout.get(layout.size() - 1).slot().size(),
+                layout.stream().mapToInt(field -> field.slot().size()).max().orElse(1)
+        );
+        var flyweightSpecBuilder = TypeSpec.classBuilder(flyweightName)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addTypeVariables(builderData.typeParameterNames())
+                .addField(FieldSpec.builder(int.class, "SIZE", Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$L", size)
+                        .build());
+        for (LayoutField field : layout) {
+            flyweightSpecBuilder.addField(FieldSpec.builder(int.class, offsetConstants.get(field.property().name()), Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$L", field.offset())
+                    .build());
+        }
+        flyweightSpecBuilder.addField(ByteBuffer.class, "buffer", Modifier.PRIVATE);
+        flyweightSpecBuilder.addField(int.class, "offset", Modifier.PRIVATE);
+        flyweightSpecBuilder.addMethod(MethodSpec.methodBuilder("wrap")
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(ByteBuffer.class, "buffer")
+                .addParameter(int.class, "offset")
+                .returns(flyweightClassName)
+                .beginControlFlow("if (offset < 0 || offset > buffer.limit() - SIZE)")
+                .addStatement("throw new $T($S + offset)", IndexOutOfBoundsException.class, "Offset fora do buffer: ")
+                .endControlFlow()
+                .addStatement("this.buffer = buffer")
+                .addStatement("this.offset = offset")
+                .addStatement("return this")
+                .build());
+        flyweightSpecBuilder.addMethod(MethodSpec.methodBuilder("wrapIndex")
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(ByteBuffer.class, "buffer")
+                .addParameter(int.class, "index")
+                .returns(flyweightClassName)
+                .addStatement("return wrap(buffer, $T.multiplyExact(index, SIZE))", Math.class)
+                .build());
+        for (PropertyData property : builderData.properties()) {
+            var slot = SLOTS.get(property.type());
+            var position = "this.offset + " + offsetConstants.get(property.name());
+            var getter = MethodSpec.methodBuilder(property.name())
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(property.type());
+            var setter = MethodSpec.methodBuilder(property.name())
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(property.type(), property.name())
+                    .returns(flyweightClassName);
+            if (property.type().equals(TypeName.BOOLEAN)) {
+                getter.addStatement("return this.buffer.$L($L) != 0", slot.getter(), position);
+                setter.addStatement("this.buffer.$L($L, (byte) ($L ? 1 : 0))", slot.setter(), position, property.name());
+            } else {
+                getter.addStatement("return this.buffer.$L($L)", slot.getter(), position);
+                setter.addStatement("this.buffer.$L($L, $L)", slot.setter(), position, property.name());
+            }
+            flyweightSpecBuilder.addMethod(getter.build());
+            flyweightSpecBuilder.addMethod(setter.addStatement("return this").build());
+        }
+        var materializeArguments = builderData.properties()
+                .stream()
+                .map(property -> property.name() + "()")
+                .collect(Collectors.joining(", "));
+        flyweightSpecBuilder.addMethod(MethodSpec.methodBuilder("materialize")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(builtClassTypeName)
+                .addStatement("return new $T($L)", builtClassTypeName, materializeArguments)
+                .build());
+        return flyweightSpecBuilder.build();
+    }
+
+    private static List<LayoutField> layout(List<PropertyData> properties) {
+        var bySize = properties.stream()
+                .sorted(Comparator.comparingInt((PropertyData property) -> SLOTS.get(property.type()).size()).reversed())
+                .collect(Collectors.toList());
+        List<LayoutField> layout = new ArrayList<>();
+        var offset = 0;
+        for (PropertyData property : bySize) {
+            var slot = SLOTS.get(property.type());
+            offset = align(offset, slot.size());
+            layout.add(new LayoutField(property, slot, offset));
+            offset += slot.size();
+        }
+        return layout;
+    }
+
+    private static int align(int offset, int alignment) {
+        return (offset + alignment - 1) / alignment * alignment;
+    }
+
+    private record Slot(int size, String getter, String setter) { }
+
+    private record LayoutField(PropertyData property, Slot slot, int offset) { }
+}
@@ -0,0 +1,136 @@
+package processor;
+
+import javax.annotation.processing.Messager;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+class InlineReport {
+    private static final int CONSTRUCTOR_BASE_SIZE = 5;
+    private static final int FIELD_STORE_SIZE = 5;
+    private static final int CONSTANT_LOAD_SIZE = 3;
+    private static final int RETURN_THIS_SIZE = 2;
+    private static final int SET_BIT_SIZE = 12;
+    private static final int BUILD_BASE_SIZE = 8;
+    private static final int ARGUMENT_SIZE = 4;
+    private static final int SINGLE_WORD_CHECK_SIZE = 16;
+    private static final int CHECK_CALL_SIZE = 4;
+    private static final int CHECK_TAIL_SIZE = 11;
+
+    record MethodSize(String method, int bytes, int limit, String option) {
+        boolean exceeded() {
+            return bytes > limit;
+        }
+    }
+
+    private final ProcessorOptions options;
+    private final Map<String, List<MethodSize>> builders = new TreeMap<>();
+
+    InlineReport(ProcessorOptions options) {
+        this.options = options;
+    }
+
+    void record(ProcessingContext context, BuilderData builderData) {
+        var methodSizes = estimate(builderData, options);
+        for (MethodSize methodSize : methodSizes) {
+            if (methodSize.exceeded()) {
+                context.messager().printMessage(
+                        Diagnostic.Kind.WARNING,
+                        String.format(
+                                "%s.%s tem cerca de %d bytes de bytecode, acima do limite de inlining de %d (-A%s)",
+                                builderData.builderQualifiedName(),
+                                methodSize.method(),
+                                methodSize.bytes(),
+                                methodSize.limit(),
+                                methodSize.option()
+                        ),
+                        context.originatingElement(builderData)
+                );
+            }
+        }
+        if (options.inlineReport() != null) {
+            builders.put(builderData.builderQualifiedName(), methodSizes);
+        }
+    }
+
+    void write(Messager messager) {
+        if (options.inlineReport() == null) {
+            return;
+        }
+        try {
+            var path = Path.of(options.inlineReport());
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.writeString(path, toJson(), StandardCharsets.UTF_8);
+        } catch (IOException | RuntimeException exception) {
+            messager.printMessage(
+                    Diagnostic.Kind.WARNING,
+                    String.format("Falha ao escrever o relatório de inlining em %s: %s", options.inlineReport(), exception.getMessage())
+            );
+        }
+    }
+
+    static List<MethodSize> estimate(BuilderData builderData, ProcessorOptions options) {
+        List<MethodSize> methodSizes = new ArrayList<>();
+        var defaults = (int) builderData.properties().stream().filter(property -> property.defaultValue() != null).count();
+        methodSizes.add(new MethodSize(
+                "<init>()",
+                CONSTRUCTOR_BASE_SIZE + defaults * (FIELD_STORE_SIZE + CONSTANT_LOAD_SIZE),
+                options.freqInlineSize(),
+                ProcessorOptions.FREQ_INLINE_SIZE
+        ));
+        var accumulated = AccumulatorWriter.accumulatedProperties(builderData);
+        for (PropertyData property : builderData.properties()) {
+            var bytes = FIELD_STORE_SIZE + RETURN_THIS_SIZE;
+            if (accumulated.contains(property)) {
+                bytes += FIELD_STORE_SIZE;
+            }
+            if (property.required()) {
+                bytes += SET_BIT_SIZE;
+            }
+            methodSizes.add(new MethodSize(property.name() + "(" + property.type() + ")", bytes, options.maxInlineSize(), ProcessorOptions.MAX_INLINE_SIZE));
+        }
+        var words = BuilderWriter.maskWords(builderData);
+        var check = words == 0 ? 0 : words == 1 ? SINGLE_WORD_CHECK_SIZE : CHECK_CALL_SIZE;
+        methodSizes.add(new MethodSize(
+                "build()",
+                BUILD_BASE_SIZE + check + builderData.properties().size() * ARGUMENT_SIZE,
+                options.freqInlineSize(),
+                ProcessorOptions.FREQ_INLINE_SIZE
+        ));
+        if (words > 1) {
+            methodSizes.add(new MethodSize(
+                    "checkRequired()",
+                    words * (ARGUMENT_SIZE + CONSTANT_LOAD_SIZE + 1) + (words - 1) + CHECK_TAIL_SIZE,
+                    options.freqInlineSize(),
+                    ProcessorOptions.FREQ_INLINE_SIZE
+            ));
+        }
+        return methodSizes;
+    }
+
+    private String toJson() {
+        var buildersJson = new StringJoiner(",\n    ", "[\n    ", "\n  ]");
+        builders.forEach((builder, methodSizes) -> {
+            var methodsJson = new StringJoiner(", ", "[", "]");
+            methodSizes.forEach(methodSize -> methodsJson.add(String.format(
+                    "{\"method\": \"%s\", \"bytes\": %d, \"limit\": %d}",
+                    methodSize.method(),
+                    methodSize.bytes(),
+                    methodSize.limit()
+            )));
+            buildersJson.add(String.format("{\"builder\": \"%s\", \"methods\": %s}", builder, methodsJson));
+        });
+        return "{\n"
+                + "  \"builders\": " + (builders.isEmpty() ? "[]" : buildersJson.toString()) + "\n"
+                + "}\n";
+    }
+}
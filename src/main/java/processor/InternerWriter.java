@@ -0,0 +1,305 @@
+package processor;
+
+import com.squareup.javapoet.*;
+
+import javax.lang.model.element.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+class InternerWriter {
+    static final String SUFFIX = "Interner";
+    static final int MAX_CAPACITY = 1 << 30;
+    private static final int WAYS = 4;
+    private static final int MAX_STRIPES = 64;
+
+    static TypeSpec buildInternerClass(BuilderData builderData) {
+        var internerName = builderData.classNameTypePair().getFirst() + SUFFIX;
+        var builtClassTypeName = builderData.classNameTypePair().getSecond();
+        var typeVariables = builderData.typeParameterNames();
+        var sharedTypeName = wildcardTypeName(builtClassTypeName);
+        var capacity = capacity(builderData.features().internCapacity());
+        var sets = capacity / WAYS;
+        var stripes = Math.min(sets, MAX_STRIPES);
+        var entryClassName = ClassName.get(builderData.packageName(), internerName, "Entry");
+        var internerSpecBuilder = TypeSpec.classBuilder(internerName)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addField(constant("WAYS", WAYS))
+                .addField(constant("SETS", sets))
+                .addField(constant("STRIPES", stripes))
+                .addField(FieldSpec.builder(ParameterizedTypeName.get(ClassName.get(AtomicReferenceArray.class), entryClassName), "TABLE")
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T<>(SETS * WAYS)", AtomicReferenceArray.class)
+                        .build())
+                .addField(FieldSpec.builder(ArrayTypeName.of(ReentrantLock.class), "LOCKS")
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T[STRIPES]", ReentrantLock.class)
+                        .build())
+                .addField(FieldSpec.builder(byte[].class, "HANDS")
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new byte[SETS]")
+                        .build())
+                .addField(FieldSpec.builder(AtomicInteger.class, "SIZE")
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T()", AtomicInteger.class)
+                        .build())
+                .addField(FieldSpec.builder(LongAdder.class, "HITS")
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T()", LongAdder.class)
+                        .build())
+                .addField(FieldSpec.builder(LongAdder.class, "MISSES")
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T()", LongAdder.class)
+                        .build())
+                .addStaticBlock(CodeBlock.builder()
+                        .beginControlFlow("for (int i = 0; i < STRIPES; i++)")
+                        .addStatement("LOCKS[i] = new $T()", ReentrantLock.class)
+                        .endControlFlow()
+                        .build())
+                .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build());
+
+        var parameters = builderData.properties()
+                .stream()
+                .map(property -> ParameterSpec.builder(property.type(), BuilderWriter.prefixFieldName(property.name())).build())
+                .collect(Collectors.toList());
+        var arguments = builderData.properties()
+                .stream()
+                .map(property -> BuilderWriter.prefixFieldName(property.name()))
+                .collect(Collectors.joining(", "));
+        var unchecked = AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked").build();
+        var cast = typeVariables.isEmpty() ? CodeBlock.of("") : CodeBlock.of("($T) ", builtClassTypeName);
+        var internMethod = MethodSpec.methodBuilder("intern")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addTypeVariables(typeVariables)
+                .addParameters(parameters)
+                .returns(builtClassTypeName)
+                .addStatement("int hash = hash($L)", arguments)
+                .addStatement("int set = hash & (SETS - 1)")
+                .addStatement("int base = set * WAYS")
+                .beginControlFlow("for (int way = 0; way < WAYS; way++)")
+                .addStatement("$T entry = TABLE.get(base + way)", entryClassName)
+                .beginControlFlow("if (entry != null && entry.hash == hash && matches(entry.value$L))", arguments.isEmpty() ? "" : ", " + arguments)
+                .beginControlFlow("if (!entry.referenced)")
+                .addStatement("entry.referenced = true")
+                .endControlFlow()
+                .addStatement("HITS.increment()")
+                .addStatement("return $Lentry.value", cast)
+                .endControlFlow()
+                .endControlFlow()
+                .addStatement("MISSES.increment()")
+                .addStatement("$T created = new $T($L)", builtClassTypeName, builtClassTypeName, arguments)
+                .addStatement("return $Linsert(hash, set, created)", cast);
+        if (!typeVariables.isEmpty()) {
+            internMethod.addAnnotation(unchecked);
+        }
+        internerSpecBuilder.addMethod(internMethod.build());
+
+        var insertMethod = MethodSpec.methodBuilder("insert")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(int.class, "hash")
+                .addParameter(int.class, "set")
+                .addParameter(sharedTypeName, "created")
+                .returns(sharedTypeName)
+                .addStatement("int base = set * WAYS")
+                .addStatement("$T lock = LOCKS[set & (STRIPES - 1)]", ReentrantLock.class)
+                .addStatement("lock.lock()")
+                .beginControlFlow("try")
+                .addStatement("int free = -1")
+                .beginControlFlow("for (int way = 0; way < WAYS; way++)")
+                .addStatement("$T entry = TABLE.get(base + way)", entryClassName)
+                .beginControlFlow("if (entry == null)")
+                .addStatement("free = free < 0 ? way : free")
+                .nextControlFlow("else if (entry.hash == hash && same(entry.value, created))")
+                .addStatement("return entry.value")
+                .endControlFlow()
+                .endControlFlow()
+                .beginControlFlow("if (free >= 0)")
+                .addStatement("TABLE.set(base + free, new $T(hash, created))", entryClassName)
+                .addStatement("SIZE.incrementAndGet()")
+                .addStatement("return created")
+                .endControlFlow()
+                .addStatement("int hand = HANDS[set]")
+                .beginControlFlow("while (TABLE.get(base + hand).referenced)")
+                .addStatement("TABLE.get(base + hand).referenced = false")
+                .addStatement("hand = (hand + 1) & (WAYS - 1)")
+                .endControlFlow()
+                .addStatement("TABLE.set(base + hand, new $T(hash, created))", entryClassName)
+                .addStatement("HANDS[set] = (byte) ((hand + 1) & (WAYS - 1))")
+                .addStatement("return created")
+                .nextControlFlow("finally")
+                .addStatement("lock.unlock()")
+                .endControlFlow();
+        internerSpecBuilder.addMethod(insertMethod.build());
+
+        internerSpecBuilder.addMethod(buildHashMethod(builderData, parameters));
+        internerSpecBuilder.addMethod(buildMatchesMethod(builderData, sharedTypeName, parameters));
+        internerSpecBuilder.addMethod(buildSameMethod(builderData, sharedTypeName));
+
+        internerSpecBuilder.addMethod(MethodSpec.methodBuilder("hits")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(long.class)
+                .addStatement("return HITS.sum()")
+                .build());
+        internerSpecBuilder.addMethod(MethodSpec.methodBuilder("misses")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(long.class)
+                .addStatement("return MISSES.sum()")
+                .build());
+        internerSpecBuilder.addMethod(MethodSpec.methodBuilder("size")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(int.class)
+                .addStatement("return SIZE.get()")
+                .build());
+        internerSpecBuilder.addMethod(MethodSpec.methodBuilder("capacity")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(int.class)
+                .addStatement("return SETS * WAYS")
+                .build());
+        internerSpecBuilder.addMethod(MethodSpec.methodBuilder("clear")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .beginControlFlow("for (int set = 0; set < SETS; set++)")
+                .addStatement("$T lock = LOCKS[set & (STRIPES - 1)]", ReentrantLock.class)
+                .addStatement("lock.lock()")
+                .beginControlFlow("try")
+                .beginControlFlow("for (int way = 0; way < WAYS; way++)")
+                .beginControlFlow("if (TABLE.getAndSet(set * WAYS + way, null) != null)")
+                .addStatement("SIZE.decrementAndGet()")
+                .endControlFlow()
+                .endControlFlow()
+                .addStatement("HANDS[set] = 0")
+                .nextControlFlow("finally")
+                .addStatement("lock.unlock()")
+                .endControlFlow()
+                .endControlFlow()
+                .addStatement("HITS.reset()")
+                .addStatement("MISSES.reset()")
+                .build());
+
+        internerSpecBuilder.addType(TypeSpec.classBuilder(entryClassName.simpleName())
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .addField(int.class, "hash", Modifier.FINAL)
+                .addField(sharedTypeName, "value", Modifier.FINAL)
+                .addField(FieldSpec.builder(boolean.class, "referenced", Modifier.VOLATILE).build())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addParameter(int.class, "hash")
+                        .addParameter(sharedTypeName, "value")
+                        .addStatement("this.hash = hash")
+                        .addStatement("this.value = value")
+                        .build())
+                .build());
+        return internerSpecBuilder.build();
+    }
+
+    static int capacity(int requested) {
+        return Math.max(WAYS, Integer.highestOneBit(Math.max(1, requested - 1)) << 1);
+    }
+
+    private static MethodSpec buildHashMethod(BuilderData builderData, List<ParameterSpec> parameters) {
+        var hashMethod = MethodSpec.methodBuilder("hash")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameters(parameters.stream().map(InternerWriter::eraseTypeVariables).collect(Collectors.toList()))
+                .returns(int.class)
+                .addStatement("int hash = 1");
+        for (PropertyData property : builderData.properties()) {
+            hashMethod.addStatement("hash = 31 * hash + $L", hashOf(property.type(), BuilderWriter.prefixFieldName(property.name())));
+        }
+        return hashMethod.addStatement("return hash ^ (hash >>> 16)").build();
+    }
+
+    private static MethodSpec buildMatchesMethod(BuilderData builderData, TypeName sharedTypeName, List<ParameterSpec> parameters) {
+        var conditions = builderData.properties()
+                .stream()
+                .map(property -> equalityOf(
+                        property.type(),
+                        CodeBlock.of("candidate.$L()", property.accessor()),
+                        CodeBlock.of("$L", BuilderWriter.prefixFieldName(property.name()))
+                ))
+                .collect(CodeBlock.joining("\n&& "));
+        return MethodSpec.methodBuilder("matches")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(sharedTypeName, "candidate")
+                .addParameters(parameters.stream().map(InternerWriter::eraseTypeVariables).collect(Collectors.toList()))
+                .returns(boolean.class)
+                .addStatement("return $L", conditions.isEmpty() ? CodeBlock.of("true") : conditions)
+                .build();
+    }
+
+    private static MethodSpec buildSameMethod(BuilderData builderData, TypeName sharedTypeName) {
+        var arguments = builderData.properties()
+                .stream()
+                .map(property -> CodeBlock.of("created.$L()", property.accessor()))
+                .collect(CodeBlock.joining(", "));
+        return MethodSpec.methodBuilder("same")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(sharedTypeName, "candidate")
+                .addParameter(sharedTypeName, "created")
+                .returns(boolean.class)
+                .addStatement("return matches(candidate$L)", arguments.isEmpty() ? "" : CodeBlock.of(", $L", arguments))
+                .build();
+    }
+
+    private static CodeBlock hashOf(TypeName typeName, String name) {
+        if (typeName.isPrimitive()) {
+            return CodeBlock.of("$T.hashCode($L)", typeName.box(), name);
+        }
+        if (typeName instanceof ArrayTypeName) {
+            return CodeBlock.of("$T.hashCode($L)", Arrays.class, name);
+        }
+        return CodeBlock.of("$T.hashCode($L)", Objects.class, name);
+    }
+
+    private static CodeBlock equalityOf(TypeName typeName, CodeBlock left, CodeBlock right) {
+        if (typeName.equals(TypeName.FLOAT)) {
+            return CodeBlock.of("$T.floatToIntBits($L) == $T.floatToIntBits($L)", Float.class, left, Float.class, right);
+        }
+        if (typeName.equals(TypeName.DOUBLE)) {
+            return CodeBlock.of("$T.doubleToLongBits($L) == $T.doubleToLongBits($L)", Double.class, left, Double.class, right);
+        }
+        if (typeName.isPrimitive()) {
+            return CodeBlock.of("$L == $L", left, right);
+        }
+        if (typeName instanceof ArrayTypeName) {
+            return CodeBlock.of("$T.equals($L, $L)", Arrays.class, left, right);
+        }
+        return CodeBlock.of("$T.equals($L, $L)", Objects.class, left, right);
+    }
+
+    private static ParameterSpec eraseTypeVariables(ParameterSpec parameter) {
+        return ParameterSpec.builder(erase(parameter.type), parameter.name).build();
+    }
+
+    private static TypeName erase(TypeName typeName) {
+        if (typeName instanceof TypeVariableName) {
+            return TypeName.OBJECT;
+        }
+        if (typeName instanceof ParameterizedTypeName parameterizedTypeName) {
+            return wildcardTypeName(parameterizedTypeName);
+        }
+        if (typeName instanceof ArrayTypeName arrayTypeName) {
+            return ArrayTypeName.of(erase(arrayTypeName.componentType));
+        }
+        return typeName;
+    }
+
+    private static TypeName wildcardTypeName(TypeName typeName) {
+        if (!(typeName instanceof ParameterizedTypeName parameterizedTypeName)) {
+            return typeName;
+        }
+        var wildcards = parameterizedTypeName.typeArguments
+                .stream()
+                .map(argument -> WildcardTypeName.subtypeOf(Object.class))
+                .toArray(TypeName[]::new);
+        return ParameterizedTypeName.get(parameterizedTypeName.rawType, wildcards);
+    }
+
+    private static FieldSpec constant(String name, int value) {
+        return FieldSpec.builder(int.class, name, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$L", value)
+                .build();
+    }
+}
@@ -0,0 +1,477 @@
+package processor;
+
+import com.squareup.javapoet.*;
+
+import javax.lang.model.element.Modifier;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Base64;
+
+class JsonReaderWriter {
+    static final String SUFFIX = "JsonReader";
+    private static final String LEXER_CLASS_NAME = "Lexer";
+    private static final int BUFFER_SIZE = 8192;
+
+    static boolean supports(ValueKind valueKind) {
+        return valueKind != ValueKind.OTHER;
+    }
+
+    static TypeSpec buildJsonReaderClass(BuilderData builderData) {
+        var readerName = builderData.classNameTypePair().getFirst() + SUFFIX;
+        var lexerClassName = ClassName.get(builderData.packageName(), readerName, LEXER_CLASS_NAME);
+        var builtClassTypeName = builderData.classNameTypePair().getSecond();
+        var typeVariables = builderData.typeParameterNames();
+        var builderTypeName = BuilderWriter.parameterizedTypeName(builderData.builderClassName(), typeVariables);
+
+        var readReaderMethod = MethodSpec.methodBuilder("read")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addTypeVariables(typeVariables)
+                .addParameter(Reader.class, "reader")
+                .returns(builtClassTypeName)
+                .addException(IOException.class)
+                .addStatement("$T chars = $T.allocate($L)", CharBuffer.class, CharBuffer.class, BUFFER_SIZE)
+                .addStatement("chars.flip()")
+                .addStatement("$T lexer = new $T(null, chars, reader)", lexerClassName, lexerClassName)
+                .addStatement("$T value = read(lexer)", builtClassTypeName)
+                .addStatement("lexer.end()")
+                .addStatement("return value")
+                .build();
+        var readBytesMethod = MethodSpec.methodBuilder("read")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addTypeVariables(typeVariables)
+                .addParameter(byte[].class, "bytes")
+                .returns(builtClassTypeName)
+                .addStatement("return read($T.wrap(bytes))", ByteBuffer.class)
+                .build();
+        var readBufferMethod = MethodSpec.methodBuilder("read")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addTypeVariables(typeVariables)
+                .addParameter(ByteBuffer.class, "bytes")
+                .returns(builtClassTypeName)
+                .addStatement("$T lexer = new $T(bytes, null, null)", lexerClassName, lexerClassName)
+                .beginControlFlow("try")
+                .addStatement("$T value = read(lexer)", builtClassTypeName)
+                .addStatement("lexer.end()")
+                .addStatement("return value")
+                .nextControlFlow("catch ($T exception)", IOException.class)
+                .addStatement("throw new $T(exception)", UncheckedIOException.class)
+                .endControlFlow()
+                .build();
+
+        var dispatch = CodeBlock.builder().beginControlFlow("switch (lexer.nextName())");
+        for (PropertyData property : builderData.properties()) {
+            dispatch.add("case $S:\n$>", property.name())
+                    .addStatement("builder.$L($L)", property.name(), readValue(property))
+                    .addStatement("break$<");
+        }
+        dispatch.add("default:\n$>")
+                .addStatement("lexer.skipValue()$<")
+                .endControlFlow();
+        var readLexerMethod = MethodSpec.methodBuilder("read")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addTypeVariables(typeVariables)
+                .addParameter(lexerClassName, "lexer")
+                .returns(builtClassTypeName)
+                .addException(IOException.class)
+                .addStatement("$T builder = new $T()", builderTypeName, builderTypeName)
+                .beginControlFlow("if (lexer.beginObject())")
+                .beginControlFlow("do")
+                .addCode(dispatch.build())
+                .endControlFlow("while (lexer.nextMember())")
+                .endControlFlow()
+                .addStatement("return builder.build()")
+                .build();
+
+        return TypeSpec.classBuilder(readerName)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build())
+                .addMethod(readReaderMethod)
+                .addMethod(readBytesMethod)
+                .addMethod(readBufferMethod)
+                .addMethod(readLexerMethod)
+                .addType(buildLexerClass())
+                .build();
+    }
+
+    private static CodeBlock readValue(PropertyData property) {
+        var type = property.type();
+        return switch (property.valueKind()) {
+            case PRIMITIVE -> readPrimitive(type);
+            case BOXED -> CodeBlock.of("lexer.nextNull() ? null : $L", readPrimitive(type.unbox()));
+            case STRING -> CodeBlock.of("lexer.nextNull() ? null : lexer.nextString()");
+            case BYTES -> CodeBlock.of("lexer.nextNull() ? null : $T.getDecoder().decode(lexer.nextString())", Base64.class);
+            case ENUM -> CodeBlock.of("lexer.nextNull() ? null : $T.valueOf(lexer.nextString())", type);
+            case AUTO_BUILDER -> {
+                var nestedReaderClassName = nestedReaderClassName(type);
+                yield CodeBlock.of(
+                        "lexer.nextNull() ? null : $T.read(new $T(lexer.bytes(), lexer.chars(), lexer.reader()))",
+                        nestedReaderClassName,
+                        nestedReaderClassName.nestedClass(LEXER_CLASS_NAME)
+                );
+            }
+            default -> throw new IllegalStateException("Tipo sem leitor JSON: " + type);
+        };
+    }
+
+    private static CodeBlock readPrimitive(TypeName type) {
+        if (type.equals(TypeName.BOOLEAN)) {
+            return CodeBlock.of("lexer.nextBoolean()");
+        }
+        if (type.equals(TypeName.CHAR)) {
+            return CodeBlock.of("lexer.nextChar()");
+        }
+        if (type.equals(TypeName.DOUBLE)) {
+            return CodeBlock.of("lexer.nextDouble()");
+        }
+        if (type.equals(TypeName.FLOAT)) {
+            return CodeBlock.of("lexer.nextFloat()");
+        }
+        if (type.equals(TypeName.LONG)) {
+            return CodeBlock.of("lexer.nextLong($T.MIN_VALUE, $T.MAX_VALUE)", Long.class, Long.class);
+        }
+        var boxed = type.box();
+        return CodeBlock.of("($T) lexer.nextLong($T.MIN_VALUE, $T.MAX_VALUE)", type, boxed, boxed);
+    }
+
+    private static ClassName nestedReaderClassName(TypeName typeName) {
+        var className = typeName instanceof ParameterizedTypeName parameterizedTypeName
+                ? parameterizedTypeName.rawType
+                : (ClassName) typeName;
+        return ClassName.get(className.packageName(), className.simpleName() + SUFFIX);
+    }
+
+    private static TypeSpec buildLexerClass() {
+        var lexerSpecBuilder = TypeSpec.classBuilder(LEXER_CLASS_NAME)
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .addField(ByteBuffer.class, "bytes", Modifier.PRIVATE, Modifier.FINAL)
+                .addField(CharBuffer.class, "chars", Modifier.PRIVATE, Modifier.FINAL)
+                .addField(Reader.class, "reader", Modifier.PRIVATE, Modifier.FINAL)
+                .addField(FieldSpec.builder(StringBuilder.class, "text", Modifier.PRIVATE, Modifier.FINAL)
+                        .initializer("new $T()", StringBuilder.class)
+                        .build())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PUBLIC)
+                        .addParameter(ByteBuffer.class, "bytes")
+                        .addParameter(CharBuffer.class, "chars")
+                        .addParameter(Reader.class, "reader")
+                        .addStatement("this.bytes = bytes")
+                        .addStatement("this.chars = chars")
+                        .addStatement("this.reader = reader")
+                        .build())
+                .addMethod(buildAccessor(ByteBuffer.class, "bytes"))
+                .addMethod(buildAccessor(CharBuffer.class, "chars"))
+                .addMethod(buildAccessor(Reader.class, "reader"));
+
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("beginObject")
+                .returns(boolean.class)
+                .addException(IOException.class)
+                .addStatement("expect('{')")
+                .beginControlFlow("if (peek() == '}')")
+                .addStatement("read()")
+                .addStatement("return false")
+                .endControlFlow()
+                .addStatement("return true")
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("nextMember")
+                .returns(boolean.class)
+                .addException(IOException.class)
+                .addStatement("int c = peek()")
+                .beginControlFlow("if (c == ',')")
+                .addStatement("read()")
+                .addStatement("return true")
+                .endControlFlow()
+                .addStatement("expect('}')")
+                .addStatement("return false")
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("nextName")
+                .returns(String.class)
+                .addException(IOException.class)
+                .addStatement("String name = nextString()")
+                .addStatement("expect(':')")
+                .addStatement("return name")
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("nextNull")
+                .returns(boolean.class)
+                .addException(IOException.class)
+                .beginControlFlow("if (peek() != 'n')")
+                .addStatement("return false")
+                .endControlFlow()
+                .addStatement("literal($S)", "null")
+                .addStatement("return true")
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("nextBoolean")
+                .returns(boolean.class)
+                .addException(IOException.class)
+                .addStatement("int c = peek()")
+                .beginControlFlow("if (c == 't')")
+                .addStatement("literal($S)", "true")
+                .addStatement("return true")
+                .endControlFlow()
+                .beginControlFlow("if (c == 'f')")
+                .addStatement("literal($S)", "false")
+                .addStatement("return false")
+                .endControlFlow()
+                .addStatement("throw error($S)", "booleano")
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("nextLong")
+                .returns(long.class)
+                .addParameter(long.class, "min")
+                .addParameter(long.class, "max")
+                .addException(IOException.class)
+                .addStatement("boolean negative = peek() == '-'")
+                .beginControlFlow("if (negative)")
+                .addStatement("read()")
+                .endControlFlow()
+                .addStatement("long value = 0")
+                .addStatement("int digits = 0")
+                .beginControlFlow("for (int c = peekRaw(); c >= '0' && c <= '9'; c = peekRaw())")
+                .addStatement("read()")
+                .addStatement("int digit = c - '0'")
+                .beginControlFlow("if (value < ($T.MIN_VALUE + digit) / 10)", Long.class)
+                .addStatement("throw error($L + min + $S + max)", BuilderWriter.stringLiteral("número entre "), " e ")
+                .endControlFlow()
+                .addStatement("value = value * 10 - digit")
+                .addStatement("digits++")
+                .endControlFlow()
+                .addStatement("int next = peekRaw()")
+                .beginControlFlow("if (digits == 0 || next == '.' || next == 'e' || next == 'E')")
+                .addStatement("throw error($L)", BuilderWriter.stringLiteral("número inteiro"))
+                .endControlFlow()
+                .beginControlFlow("if (!negative)")
+                .beginControlFlow("if (value == $T.MIN_VALUE)", Long.class)
+                .addStatement("throw error($L + min + $S + max)", BuilderWriter.stringLiteral("número entre "), " e ")
+                .endControlFlow()
+                .addStatement("value = -value")
+                .endControlFlow()
+                .beginControlFlow("if (value < min || value > max)")
+                .addStatement("throw error($L + min + $S + max)", BuilderWriter.stringLiteral("número entre "), " e ")
+                .endControlFlow()
+                .addStatement("return value")
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("nextDouble")
+                .returns(double.class)
+                .addException(IOException.class)
+                .addStatement("String number = numberText()")
+                .beginControlFlow("try")
+                .addStatement("return $T.parseDouble(number)", Double.class)
+                .nextControlFlow("catch ($T exception)", NumberFormatException.class)
+                .addStatement("throw error($L)", BuilderWriter.stringLiteral("número"))
+                .endControlFlow()
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("nextFloat")
+                .returns(float.class)
+                .addException(IOException.class)
+                .addStatement("String number = numberText()")
+                .beginControlFlow("try")
+                .addStatement("return $T.parseFloat(number)", Float.class)
+                .nextControlFlow("catch ($T exception)", NumberFormatException.class)
+                .addStatement("throw error($L)", BuilderWriter.stringLiteral("número"))
+                .endControlFlow()
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("nextChar")
+                .returns(char.class)
+                .addException(IOException.class)
+                .addStatement("String value = nextString()")
+                .beginControlFlow("if (value.length() != 1)")
+                .addStatement("throw error($S)", "um caractere")
+                .endControlFlow()
+                .addStatement("return value.charAt(0)")
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("nextString")
+                .returns(String.class)
+                .addException(IOException.class)
+                .addStatement("expect('\"')")
+                .addStatement("this.text.setLength(0)")
+                .beginControlFlow("while (true)")
+                .addStatement("int c = read()")
+                .beginControlFlow("if (c == '\"')")
+                .addStatement("return this.text.toString()")
+                .endControlFlow()
+                .beginControlFlow("if (c == '\\\\')")
+                .addStatement("c = read()")
+                .beginControlFlow("switch (c)")
+                .addCode("case '\"':\ncase '\\\\':\ncase '/':\n$>")
+                .addStatement("this.text.append((char) c)")
+                .addStatement("break$<")
+                .addCode(escape('b'))
+                .addCode(escape('f'))
+                .addCode(escape('n'))
+                .addCode(escape('r'))
+                .addCode(escape('t'))
+                .addCode("case 'u':\n$>")
+                .addStatement("int code = 0")
+                .beginControlFlow("for (int i = 0; i < 4; i++)")
+                .addStatement("int digit = $T.digit(read(), 16)", Character.class)
+                .beginControlFlow("if (digit < 0)")
+                .addStatement("throw error($S)", "escape \\u")
+                .endControlFlow()
+                .addStatement("code = (code << 4) | digit")
+                .endControlFlow()
+                .addStatement("this.text.append((char) code)")
+                .addStatement("break$<")
+                .addCode("default:\n$>")
+                .addStatement("throw error($S)$<", "escape")
+                .endControlFlow()
+                .nextControlFlow("else if (c < 0x20)")
+                .addStatement("throw error($S)", "\"")
+                .nextControlFlow("else")
+                .addStatement("this.text.appendCodePoint(c)")
+                .endControlFlow()
+                .endControlFlow()
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("skipValue")
+                .addException(IOException.class)
+                .addStatement("int c = peek()")
+                .beginControlFlow("if (c == '\"')")
+                .addStatement("nextString()")
+                .nextControlFlow("else if (c == 't' || c == 'f')")
+                .addStatement("nextBoolean()")
+                .nextControlFlow("else if (c == 'n')")
+                .addStatement("nextNull()")
+                .nextControlFlow("else if (c != '{' && c != '[')")
+                .addStatement("nextDouble()")
+                .nextControlFlow("else")
+                .addStatement("int depth = 0")
+                .beginControlFlow("do")
+                .addStatement("c = peek()")
+                .beginControlFlow("if (c == '\"')")
+                .addStatement("nextString()")
+                .addStatement("continue")
+                .endControlFlow()
+                .beginControlFlow("if (c < 0)")
+                .addStatement("throw error($S)", "fim do valor")
+                .endControlFlow()
+                .addStatement("read()")
+                .beginControlFlow("if (c == '{' || c == '[')")
+                .addStatement("depth++")
+                .nextControlFlow("else if (c == '}' || c == ']')")
+                .addStatement("depth--")
+                .endControlFlow()
+                .endControlFlow("while (depth > 0)")
+                .endControlFlow()
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("end")
+                .addException(IOException.class)
+                .beginControlFlow("if (peek() >= 0)")
+                .addStatement("throw error($S)", "fim do JSON")
+                .endControlFlow()
+                .build());
+
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("numberText")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(String.class)
+                .addException(IOException.class)
+                .addStatement("peek()")
+                .addStatement("this.text.setLength(0)")
+                .beginControlFlow("for (int c = peekRaw(); (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E'; c = peekRaw())")
+                .addStatement("this.text.append((char) read())")
+                .endControlFlow()
+                .addStatement("return this.text.toString()")
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("literal")
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(String.class, "word")
+                .addException(IOException.class)
+                .beginControlFlow("for (int i = 0; i < word.length(); i++)")
+                .beginControlFlow("if (read() != word.charAt(i))")
+                .addStatement("throw error(word)")
+                .endControlFlow()
+                .endControlFlow()
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("expect")
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(char.class, "expected")
+                .addException(IOException.class)
+                .beginControlFlow("if (peek() != expected)")
+                .addStatement("throw error(\"'\" + expected + \"'\")")
+                .endControlFlow()
+                .addStatement("read()")
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("peek")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(int.class)
+                .addException(IOException.class)
+                .addStatement("int c = peekRaw()")
+                .beginControlFlow("while (c == ' ' || c == '\\t' || c == '\\n' || c == '\\r')")
+                .addStatement("read()")
+                .addStatement("c = peekRaw()")
+                .endControlFlow()
+                .addStatement("return c")
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("peekRaw")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(int.class)
+                .addException(IOException.class)
+                .beginControlFlow("if (this.bytes != null)")
+                .addStatement("return this.bytes.hasRemaining() ? this.bytes.get(this.bytes.position()) & 0xFF : -1")
+                .endControlFlow()
+                .addStatement("return fill() ? this.chars.get(this.chars.position()) : -1")
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("read")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(int.class)
+                .addException(IOException.class)
+                .beginControlFlow("if (this.bytes == null)")
+                .addStatement("return fill() ? this.chars.get() : -1")
+                .endControlFlow()
+                .beginControlFlow("if (!this.bytes.hasRemaining())")
+                .addStatement("return -1")
+                .endControlFlow()
+                .addStatement("int lead = this.bytes.get() & 0xFF")
+                .beginControlFlow("if (lead < 0x80)")
+                .addStatement("return lead")
+                .endControlFlow()
+                .addStatement("int extra = lead >= 0xF8 ? -1 : lead >= 0xF0 ? 3 : lead >= 0xE0 ? 2 : lead >= 0xC0 ? 1 : -1")
+                .beginControlFlow("if (extra < 0)")
+                .addStatement("throw error($S)", "UTF-8")
+                .endControlFlow()
+                .addStatement("int codePoint = lead & (0x3F >> extra)")
+                .beginControlFlow("for (int i = 0; i < extra; i++)")
+                .addStatement("int next = this.bytes.hasRemaining() ? this.bytes.get() & 0xFF : 0")
+                .beginControlFlow("if ((next & 0xC0) != 0x80)")
+                .addStatement("throw error($S)", "UTF-8")
+                .endControlFlow()
+                .addStatement("codePoint = (codePoint << 6) | (next & 0x3F)")
+                .endControlFlow()
+                .addStatement("return codePoint")
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("fill")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(boolean.class)
+                .addException(IOException.class)
+                .beginControlFlow("if (this.chars.hasRemaining())")
+                .addStatement("return true")
+                .endControlFlow()
+                .addStatement("this.chars.clear()")
+                .addStatement("int count = this.reader.read(this.chars)")
+                .addStatement("this.chars.flip()")
+                .addStatement("return count > 0")
+                .build());
+        lexerSpecBuilder.addMethod(MethodSpec.methodBuilder("error")
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(String.class, "expected")
+                .returns(IllegalArgumentException.class)
+                .addStatement("return new $T($L + expected)", IllegalArgumentException.class, BuilderWriter.stringLiteral("JSON inválido: esperado "))
+                .build());
+        return lexerSpecBuilder.build();
+    }
+
+    private static CodeBlock escape(char escape) {
+        return CodeBlock.builder()
+                .add("case '$L':\n$>", escape)
+                .addStatement("this.text.append('\\$L')", escape)
+                .addStatement("break$<")
+                .build();
+    }
+
+    private static MethodSpec buildAccessor(Class<?> type, String name) {
+        return MethodSpec.methodBuilder(name)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(type)
+                .addStatement("return this.$L", name)
+                .build();
+    }
+}
@@ -1,44 +1,50 @@
 package processor;
 
 import annotations.AutoBuilder;
+import annotations.Default;
+import annotations.Required;
 import com.google.auto.service.AutoService;
-import processor.AutoBuildProcessor;
 
 import javax.annotation.processing.*;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.TypeElement;
-import javax.lang.model.util.Elements;
-import javax.lang.model.util.Types;
+import java.util.HashSet;
 import java.util.Set;
 
 @AutoService(Processor.class)
 public class MainProcessor extends AbstractProcessor {
-    public static Filer filer;
-    public static Elements elements;
-    public static Messager messager;
-    public static Types types;
+    private static final String GRADLE_ISOLATING = "org.gradle.annotation.processing.isolating";
+    private static final String GRADLE_AGGREGATING = "org.gradle.annotation.processing.aggregating";
+
+    private ProcessingContext context;
 
     @Override
     public synchronized void init(ProcessingEnvironment environment) {
         super.init(environment);
-        types = environment.getTypeUtils();
-        elements = environment.getElementUtils();
-        filer = environment.getFiler();
-        messager = environment.getMessager();
+        context = ProcessingContext.of(environment);
     }
 
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment environment) {
-        return AutoBuildProcessor.process(environment);
+        return AutoBuildProcessor.process(context, environment);
     }
 
     @Override
     public Set<String> getSupportedAnnotationTypes() {
         return Set.of(
-            AutoBuilder.class.getCanonicalName()
+            AutoBuilder.class.getCanonicalName(),
+            Required.class.getCanonicalName(),
+            Default.class.getCanonicalName()
         );
     }
 
+    @Override
+    public Set<String> getSupportedOptions() {
+        Set<String> supportedOptions = new HashSet<>(ProcessorOptions.NAMES);
+        supportedOptions.add(context != null && context.options().aggregating() ? GRADLE_AGGREGATING : GRADLE_ISOLATING);
+        return supportedOptions;
+    }
+
     @Override
     public SourceVersion getSupportedSourceVersion() {
         return SourceVersion.latestSupported();
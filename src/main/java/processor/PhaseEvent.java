@@ -0,0 +1,22 @@
+package processor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("autobuilder.Phase")
+@Label("AutoBuilder Phase")
+@Category({"AutoBuilder", "Annotation Processing"})
+@Description("Uma fase de uma rodada do processador @AutoBuilder")
+class PhaseEvent extends Event {
+    @Label("Round")
+    int round;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Items")
+    int items;
+}
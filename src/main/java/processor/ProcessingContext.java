@@ -0,0 +1,117 @@
+package processor;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ProcessingContext {
+    private final Filer filer;
+    private final Elements elements;
+    private final Messager messager;
+    private final Types types;
+    private final ProcessorOptions options;
+    private final ProcessorStats stats;
+    private final SourceVersion sourceVersion;
+    private final Map<String, String> writtenBuilders = new HashMap<>();
+    private final BuilderRegistry registry = new BuilderRegistry();
+    private final InlineReport inlineReport;
+    private final TypeNameCache typeNames = new TypeNameCache();
+    private final Map<String, TypeElement> originatingElements = new HashMap<>();
+
+    public ProcessingContext(
+            Filer filer,
+            Elements elements,
+            Messager messager,
+            Types types,
+            ProcessorOptions options,
+            SourceVersion sourceVersion
+    ) {
+        this.filer = filer;
+        this.elements = elements;
+        this.messager = messager;
+        this.types = types;
+        this.options = options;
+        this.stats = new ProcessorStats(options);
+        this.inlineReport = new InlineReport(options);
+        this.sourceVersion = sourceVersion;
+    }
+
+    public static ProcessingContext of(ProcessingEnvironment environment) {
+        var messager = environment.getMessager();
+        return new ProcessingContext(
+                environment.getFiler(),
+                environment.getElementUtils(),
+                messager,
+                environment.getTypeUtils(),
+                ProcessorOptions.parse(environment.getOptions(), messager),
+                environment.getSourceVersion()
+        );
+    }
+
+    public Filer filer() {
+        return filer;
+    }
+
+    public Elements elements() {
+        return elements;
+    }
+
+    public Messager messager() {
+        return messager;
+    }
+
+    public Types types() {
+        return types;
+    }
+
+    public ProcessorOptions options() {
+        return options;
+    }
+
+    public ProcessorStats stats() {
+        return stats;
+    }
+
+    public SourceVersion sourceVersion() {
+        return sourceVersion;
+    }
+
+    Map<String, String> writtenBuilders() {
+        return writtenBuilders;
+    }
+
+    BuilderRegistry registry() {
+        return registry;
+    }
+
+    InlineReport inlineReport() {
+        return inlineReport;
+    }
+
+    TypeNameCache typeNames() {
+        return typeNames;
+    }
+
+    void originate(BuilderData builderData, TypeElement originatingElement) {
+        originatingElements.put(builderData.builderQualifiedName(), originatingElement);
+    }
+
+    TypeElement originatingElement(BuilderData builderData) {
+        return originatingElements.get(builderData.builderQualifiedName());
+    }
+
+    void release(String builderQualifiedName) {
+        originatingElements.remove(builderQualifiedName);
+    }
+
+    void endRound() {
+        typeNames.clear();
+        originatingElements.clear();
+    }
+}
@@ -0,0 +1,121 @@
+package processor;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.SourceVersion;
+import javax.tools.Diagnostic;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public record ProcessorOptions(
+        int threads,
+        boolean stats,
+        String statsFile,
+        Emit emit,
+        boolean registry,
+        String registryPackage,
+        boolean nativeImage,
+        boolean jmh,
+        int maxInlineSize,
+        int freqInlineSize,
+        String inlineReport
+) {
+    public enum Emit { SOURCE, BYTECODE }
+
+    static final String THREADS = "autobuilder.threads";
+    static final String STATS = "autobuilder.stats";
+    static final String STATS_FILE = "autobuilder.statsFile";
+    static final String EMIT = "autobuilder.emit";
+    static final String REGISTRY = "autobuilder.registry";
+    static final String REGISTRY_PACKAGE = "autobuilder.registryPackage";
+    static final String NATIVE_IMAGE = "autobuilder.nativeImage";
+    static final String JMH = "autobuilder.jmh";
+    static final String MAX_INLINE_SIZE = "autobuilder.maxInlineSize";
+    static final String FREQ_INLINE_SIZE = "autobuilder.freqInlineSize";
+    static final String INLINE_REPORT = "autobuilder.inlineReport";
+    static final Set<String> NAMES = Set.of(
+            THREADS, STATS, STATS_FILE, EMIT, REGISTRY, REGISTRY_PACKAGE, NATIVE_IMAGE, JMH, MAX_INLINE_SIZE, FREQ_INLINE_SIZE, INLINE_REPORT
+    );
+
+    private static final String DEFAULT_REGISTRY_PACKAGE = "autobuilder";
+
+    private static final int DEFAULT_MAX_INLINE_SIZE = 35;
+    private static final int DEFAULT_FREQ_INLINE_SIZE = 325;
+
+    private static final int DEFAULT_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    public static ProcessorOptions parse(Map<String, String> options, Messager messager) {
+        var threads = parseInt(options, THREADS, DEFAULT_THREADS, 1, messager);
+        var stats = Boolean.parseBoolean(options.get(STATS));
+        var statsFile = options.get(STATS_FILE);
+        var emit = parseEmit(options, messager);
+        var registry = Boolean.parseBoolean(options.get(REGISTRY));
+        var registryPackage = parseRegistryPackage(options, messager);
+        var nativeImage = Boolean.parseBoolean(options.get(NATIVE_IMAGE));
+        var jmh = Boolean.parseBoolean(options.get(JMH));
+        var maxInlineSize = parseInt(options, MAX_INLINE_SIZE, DEFAULT_MAX_INLINE_SIZE, 1, messager);
+        var freqInlineSize = parseInt(options, FREQ_INLINE_SIZE, DEFAULT_FREQ_INLINE_SIZE, 1, messager);
+        var inlineReport = options.get(INLINE_REPORT);
+        return new ProcessorOptions(
+                threads, stats, statsFile, emit, registry, registryPackage, nativeImage, jmh, maxInlineSize, freqInlineSize, inlineReport
+        );
+    }
+
+    public boolean aggregating() {
+        return registry || nativeImage;
+    }
+
+    public boolean statsEnabled() {
+        return stats || statsFile != null;
+    }
+
+    private static Emit parseEmit(Map<String, String> options, Messager messager) {
+        var value = options.get(EMIT);
+        if (value == null) {
+            return Emit.SOURCE;
+        }
+        for (Emit emit : Emit.values()) {
+            if (emit.name().equalsIgnoreCase(value.trim())) {
+                return emit;
+            }
+        }
+        messager.printMessage(
+                Diagnostic.Kind.WARNING,
+                String.format("Valor inválido para -A%s: '%s', usando %s", EMIT, value, Emit.SOURCE.name().toLowerCase(Locale.ROOT))
+        );
+        return Emit.SOURCE;
+    }
+
+    private static String parseRegistryPackage(Map<String, String> options, Messager messager) {
+        var value = options.get(REGISTRY_PACKAGE);
+        if (value == null) {
+            return DEFAULT_REGISTRY_PACKAGE;
+        }
+        if (SourceVersion.isName(value.trim())) {
+            return value.trim();
+        }
+        messager.printMessage(
+                Diagnostic.Kind.WARNING,
+                String.format("Valor inválido para -A%s: '%s', usando %s", REGISTRY_PACKAGE, value, DEFAULT_REGISTRY_PACKAGE)
+        );
+        return DEFAULT_REGISTRY_PACKAGE;
+    }
+
+    private static int parseInt(Map<String, String> options, String name, int defaultValue, int minimum, Messager messager) {
+        var value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            var parsed = Integer.parseInt(value.trim());
+            if (parsed >= minimum) {
+                return parsed;
+            }
+        } catch (NumberFormatException ignored) {}
+        messager.printMessage(
+                Diagnostic.Kind.WARNING,
+                String.format("Valor inválido para -A%s: '%s', usando %d", name, value, defaultValue)
+        );
+        return defaultValue;
+    }
+}
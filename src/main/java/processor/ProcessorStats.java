@@ -0,0 +1,205 @@
+package processor;
+
+import javax.annotation.processing.Messager;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+public class ProcessorStats {
+    enum Phase { EXTRACTION, RENDERING, WRITING }
+
+    private final ProcessorOptions options;
+    private final List<Round> rounds = new ArrayList<>();
+    private Round currentRound;
+
+    public ProcessorStats(ProcessorOptions options) {
+        this.options = options;
+    }
+
+    boolean enabled() {
+        return options.statsEnabled();
+    }
+
+    Round startRound(int annotatedElements) {
+        currentRound = new Round(rounds.size() + 1, annotatedElements, enabled());
+        if (enabled()) {
+            rounds.add(currentRound);
+        }
+        return currentRound;
+    }
+
+    public void recordCheckFailure() {
+        if (currentRound != null) {
+            currentRound.checkFailures++;
+        }
+    }
+
+    void report(Messager messager) {
+        if (!enabled()) {
+            return;
+        }
+        var total = total();
+        if (options.stats()) {
+            messager.printMessage(Diagnostic.Kind.NOTE, String.format(
+                    Locale.ROOT,
+                    "AutoBuilder: %d rodadas, %d elementos, %d builders escritos, %d ignorados, "
+                            + "extração %.3f ms, renderização %.3f ms, escrita %.3f ms, %d bytes gerados, %d falhas de verificação",
+                    rounds.size(),
+                    total.annotatedElements,
+                    total.builders,
+                    total.skippedBuilders,
+                    total.phaseNanos[Phase.EXTRACTION.ordinal()] / 1e6,
+                    total.phaseNanos[Phase.RENDERING.ordinal()] / 1e6,
+                    total.phaseNanos[Phase.WRITING.ordinal()] / 1e6,
+                    total.generatedBytes,
+                    total.checkFailures
+            ));
+        }
+        if (options.statsFile() != null) {
+            try {
+                var path = Path.of(options.statsFile());
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                Files.writeString(path, toJson(total), StandardCharsets.UTF_8);
+            } catch (IOException | RuntimeException exception) {
+                messager.printMessage(
+                        Diagnostic.Kind.WARNING,
+                        String.format("Falha ao escrever estatísticas em %s: %s", options.statsFile(), exception.getMessage())
+                );
+            }
+        }
+    }
+
+    private Round total() {
+        var total = new Round(0, 0, false);
+        for (Round round : rounds) {
+            total.annotatedElements += round.annotatedElements;
+            total.builders += round.builders;
+            total.skippedBuilders += round.skippedBuilders;
+            for (int i = 0; i < total.phaseNanos.length; i++) {
+                total.phaseNanos[i] += round.phaseNanos[i];
+            }
+            total.generatedBytes += round.generatedBytes;
+            total.checkFailures += round.checkFailures;
+        }
+        return total;
+    }
+
+    private String toJson(Round total) {
+        var roundsJson = new StringJoiner(",\n    ", "[\n    ", "\n  ]");
+        rounds.forEach(round -> roundsJson.add(round.toJson()));
+        return "{\n"
+                + "  \"rounds\": " + (rounds.isEmpty() ? "[]" : roundsJson.toString()) + ",\n"
+                + "  \"total\": " + total.toJson() + "\n"
+                + "}\n";
+    }
+
+    static class Round {
+        private final int number;
+        private final boolean enabled;
+        private int annotatedElements;
+        private int builders;
+        private int skippedBuilders;
+        private final long[] phaseNanos = new long[Phase.values().length];
+        private long generatedBytes;
+        private int checkFailures;
+
+        private Round(int number, int annotatedElements, boolean enabled) {
+            this.number = number;
+            this.annotatedElements = annotatedElements;
+            this.enabled = enabled;
+        }
+
+        Timer time(Phase phase) {
+            return enabled ? new Timer(this, phase) : Timer.DISABLED;
+        }
+
+        void builders(int written, int skipped) {
+            this.builders += written;
+            this.skippedBuilders += skipped;
+        }
+
+        void generated(RenderedSource renderedSource) {
+            if (enabled) {
+                generatedBytes += renderedSource.size();
+            }
+        }
+
+        void end() {
+            if (!enabled) {
+                return;
+            }
+            var event = new RoundEvent();
+            if (event.shouldCommit()) {
+                event.round = number;
+                event.annotatedElements = annotatedElements;
+                event.builders = builders;
+                event.skippedBuilders = skippedBuilders;
+                event.extractionNanos = phaseNanos[Phase.EXTRACTION.ordinal()];
+                event.renderingNanos = phaseNanos[Phase.RENDERING.ordinal()];
+                event.writingNanos = phaseNanos[Phase.WRITING.ordinal()];
+                event.generatedBytes = generatedBytes;
+                event.checkFailures = checkFailures;
+                event.commit();
+            }
+        }
+
+        private String toJson() {
+            return String.format(
+                    Locale.ROOT,
+                    "{\"round\": %d, \"annotatedElements\": %d, \"builders\": %d, \"skippedBuilders\": %d, "
+                            + "\"extractionNanos\": %d, \"renderingNanos\": %d, \"writingNanos\": %d, "
+                            + "\"generatedBytes\": %d, \"checkFailures\": %d}",
+                    number,
+                    annotatedElements,
+                    builders,
+                    skippedBuilders,
+                    phaseNanos[Phase.EXTRACTION.ordinal()],
+                    phaseNanos[Phase.RENDERING.ordinal()],
+                    phaseNanos[Phase.WRITING.ordinal()],
+                    generatedBytes,
+                    checkFailures
+            );
+        }
+    }
+
+    static class Timer {
+        private static final Timer DISABLED = new Timer(null, null);
+
+        private final Round round;
+        private final Phase phase;
+        private final long start;
+        private final PhaseEvent event;
+
+        private Timer(Round round, Phase phase) {
+            this.round = round;
+            this.phase = phase;
+            this.start = System.nanoTime();
+            this.event = round == null ? null : new PhaseEvent();
+            if (event != null) {
+                event.begin();
+            }
+        }
+
+        void stop(int items) {
+            if (round == null) {
+                return;
+            }
+            round.phaseNanos[phase.ordinal()] += System.nanoTime() - start;
+            event.end();
+            if (event.shouldCommit()) {
+                event.round = round.number;
+                event.phase = phase.name().toLowerCase(Locale.ROOT);
+                event.items = items;
+                event.commit();
+            }
+        }
+    }
+}
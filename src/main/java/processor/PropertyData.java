@@ -0,0 +1,14 @@
+package processor;
+
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.TypeName;
+
+public record PropertyData(
+        String name,
+        TypeName type,
+        String accessor,
+        ValueKind valueKind,
+        BuilderFeatures nestedFeatures,
+        boolean required,
+        CodeBlock defaultValue
+) { }
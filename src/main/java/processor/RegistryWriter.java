@@ -0,0 +1,172 @@
+package processor;
+
+import com.squareup.javapoet.*;
+import utils.Check;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+class RegistryWriter {
+    static final String CLASS_NAME = "AutoBuilders";
+    static final int CASES_PER_METHOD = 256;
+    private static final String NATIVE_IMAGE_DIRECTORY = "META-INF/native-image/autobuilder/";
+
+    static void write(ProcessingContext context) {
+        var registry = context.registry();
+        var options = context.options();
+        var filer = context.filer();
+        var entries = registry.entries();
+        var originatingElements = entries.stream()
+                .map(entry -> context.elements().getTypeElement(entry.canonicalName()))
+                .filter(Objects::nonNull)
+                .toArray(Element[]::new);
+        registry.markWritten();
+        try {
+            if (options.registry()) {
+                JavaFile.builder(options.registryPackage(), buildRegistryClass(entries, originatingElements)).build().writeTo(filer);
+            }
+            if (options.nativeImage()) {
+                var resource = filer.createResource(
+                        StandardLocation.CLASS_OUTPUT,
+                        "",
+                        NATIVE_IMAGE_DIRECTORY + options.registryPackage() + "/reflect-config.json",
+                        originatingElements
+                );
+                try (Writer writer = resource.openWriter()) {
+                    writer.write(buildReflectConfig(entries));
+                }
+            }
+        } catch (IOException exception) {
+            Check.check(
+                    context,
+                    false,
+                    originatingElements,
+                    "Falha ao escrever %s.%s: %s",
+                    options.registryPackage(),
+                    CLASS_NAME,
+                    exception.getMessage()
+            );
+        }
+    }
+
+    static TypeSpec buildRegistryClass(List<BuilderRegistry.Entry> entries, Element[] originatingElements) {
+        var registrySpecBuilder = TypeSpec.classBuilder(CLASS_NAME)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build());
+        Arrays.stream(originatingElements).forEach(registrySpecBuilder::addOriginatingElement);
+
+        var factoryTypeName = ParameterizedTypeName.get(ClassName.get(Supplier.class), WildcardTypeName.subtypeOf(Object.class));
+        var classTypeName = ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class));
+        registrySpecBuilder.addMethod(MethodSpec.methodBuilder("builderFor")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(Object.class)
+                .addParameter(classTypeName, "type")
+                .addStatement("$T builder = newBuilder(type.getName())", Object.class)
+                .beginControlFlow("if (builder == null)")
+                .addStatement("throw new $T($S + type.getName())", IllegalArgumentException.class, "Nenhum builder gerado para ")
+                .endControlFlow()
+                .addStatement("return builder")
+                .build());
+        registrySpecBuilder.addMethod(MethodSpec.methodBuilder("factoryFor")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(factoryTypeName)
+                .addParameter(classTypeName, "type")
+                .addStatement("$T factory = factory(type.getName())", factoryTypeName)
+                .beginControlFlow("if (factory == null)")
+                .addStatement("throw new $T($S + type.getName())", IllegalArgumentException.class, "Nenhum builder gerado para ")
+                .endControlFlow()
+                .addStatement("return factory")
+                .build());
+        registrySpecBuilder.addMethod(MethodSpec.methodBuilder("hasBuilder")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(TypeName.BOOLEAN)
+                .addParameter(classTypeName, "type")
+                .addStatement("return factory(type.getName()) != null")
+                .build());
+        registrySpecBuilder.addMethods(buildLookupMethods(
+                "newBuilder",
+                TypeName.OBJECT,
+                entries,
+                entry -> CodeBlock.of(entry.generic() ? "new $T<>()" : "new $T()", entry.builderClassName())
+        ));
+        registrySpecBuilder.addMethods(buildLookupMethods(
+                "factory",
+                factoryTypeName,
+                entries,
+                entry -> CodeBlock.of("$T::new", entry.builderClassName())
+        ));
+        return registrySpecBuilder.build();
+    }
+
+    private static List<MethodSpec> buildLookupMethods(
+            String name,
+            TypeName returnType,
+            List<BuilderRegistry.Entry> entries,
+            Function<BuilderRegistry.Entry, CodeBlock> value
+    ) {
+        var buckets = (entries.size() + CASES_PER_METHOD - 1) / CASES_PER_METHOD;
+        if (buckets <= 1) {
+            return List.of(buildSwitchMethod(name, returnType, entries, value));
+        }
+        List<List<BuilderRegistry.Entry>> bucketEntries = new ArrayList<>();
+        for (int i = 0; i < buckets; i++) {
+            bucketEntries.add(new ArrayList<>());
+        }
+        for (BuilderRegistry.Entry entry : entries) {
+            bucketEntries.get(Math.floorMod(entry.builtClassName().hashCode(), buckets)).add(entry);
+        }
+        List<MethodSpec> methods = new ArrayList<>();
+        var dispatch = CodeBlock.builder().beginControlFlow("switch ($T.floorMod(className.hashCode(), $L))", Math.class, buckets);
+        for (int i = 0; i < buckets; i++) {
+            dispatch.addStatement("case $L: return $L$L(className)", i, name, i);
+            methods.add(buildSwitchMethod(name + i, returnType, bucketEntries.get(i), value));
+        }
+        dispatch.addStatement("default: return null").endControlFlow();
+        methods.add(0, MethodSpec.methodBuilder(name)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(returnType)
+                .addParameter(String.class, "className")
+                .addCode(dispatch.build())
+                .build());
+        return methods;
+    }
+
+    private static MethodSpec buildSwitchMethod(
+            String name,
+            TypeName returnType,
+            List<BuilderRegistry.Entry> entries,
+            Function<BuilderRegistry.Entry, CodeBlock> value
+    ) {
+        var body = CodeBlock.builder().beginControlFlow("switch (className)");
+        for (BuilderRegistry.Entry entry : entries) {
+            body.addStatement("case $S: return $L", entry.builtClassName(), value.apply(entry));
+        }
+        body.addStatement("default: return null").endControlFlow();
+        return MethodSpec.methodBuilder(name)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(returnType)
+                .addParameter(String.class, "className")
+                .addCode(body.build())
+                .build();
+    }
+
+    static String buildReflectConfig(List<BuilderRegistry.Entry> entries) {
+        var json = new StringBuilder("[\n");
+        for (int i = 0; i < entries.size(); i++) {
+            json.append("  {\"name\": \"")
+                    .append(entries.get(i).builderClassName().reflectionName())
+                    .append("\", \"allPublicConstructors\": true, \"allPublicMethods\": true}")
+                    .append(i + 1 < entries.size() ? ",\n" : "\n");
+        }
+        return json.append("]\n").toString();
+    }
+}
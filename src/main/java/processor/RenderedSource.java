@@ -0,0 +1,18 @@
+package processor;
+
+import javax.lang.model.element.Element;
+import java.nio.charset.StandardCharsets;
+
+record RenderedSource(String qualifiedName, String builderQualifiedName, String source, byte[] bytecode, Element originatingElement) {
+    static RenderedSource ofSource(String qualifiedName, String builderQualifiedName, String source, Element originatingElement) {
+        return new RenderedSource(qualifiedName, builderQualifiedName, source, null, originatingElement);
+    }
+
+    static RenderedSource ofBytecode(String qualifiedName, byte[] bytecode, Element originatingElement) {
+        return new RenderedSource(qualifiedName, qualifiedName, null, bytecode, originatingElement);
+    }
+
+    int size() {
+        return bytecode != null ? bytecode.length : source.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
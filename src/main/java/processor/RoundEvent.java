@@ -0,0 +1,46 @@
+package processor;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("autobuilder.Round")
+@Label("AutoBuilder Round")
+@Category({"AutoBuilder", "Annotation Processing"})
+@Description("Resumo de uma rodada do processador @AutoBuilder")
+class RoundEvent extends Event {
+    @Label("Round")
+    int round;
+
+    @Label("Annotated Elements")
+    int annotatedElements;
+
+    @Label("Builders Written")
+    int builders;
+
+    @Label("Builders Skipped")
+    int skippedBuilders;
+
+    @Label("Extraction Time")
+    @Timespan
+    long extractionNanos;
+
+    @Label("Rendering Time")
+    @Timespan
+    long renderingNanos;
+
+    @Label("Writing Time")
+    @Timespan
+    long writingNanos;
+
+    @Label("Generated Bytes")
+    @DataAmount
+    long generatedBytes;
+
+    @Label("Check Failures")
+    int checkFailures;
+}
@@ -0,0 +1,36 @@
+package processor;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeVariableName;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.type.TypeMirror;
+import java.util.HashMap;
+import java.util.Map;
+
+class TypeNameCache {
+    private final Map<TypeName, TypeName> interned = new HashMap<>();
+
+    TypeName get(TypeMirror mirror) {
+        return intern(TypeName.get(mirror));
+    }
+
+    ClassName get(TypeElement element) {
+        return intern(ClassName.get(element));
+    }
+
+    TypeVariableName get(TypeParameterElement element) {
+        return intern(TypeVariableName.get(element));
+    }
+
+    @SuppressWarnings("unchecked")
+    <T extends TypeName> T intern(T typeName) {
+        return (T) interned.computeIfAbsent(typeName, key -> key);
+    }
+
+    void clear() {
+        interned.clear();
+    }
+}
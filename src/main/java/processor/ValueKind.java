@@ -0,0 +1,11 @@
+package processor;
+
+public enum ValueKind {
+    PRIMITIVE,
+    BOXED,
+    STRING,
+    BYTES,
+    ENUM,
+    AUTO_BUILDER,
+    OTHER
+}
@@ -1,22 +1,23 @@
 package utils;
 
-import processor.MainProcessor;
+import processor.ProcessingContext;
 
 import javax.lang.model.element.Element;
 import javax.tools.Diagnostic;
 
 public class Check {
 
-    public static boolean check(boolean value, Element[] elements, String message, Object... args) {
+    public static boolean check(ProcessingContext context, boolean value, Element[] elements, String message, Object... args) {
         if (!value) {
-            printErrorMessage(elements, message, args);
+            context.stats().recordCheckFailure();
+            printErrorMessage(context, elements, message, args);
         }
         return value;
     }
 
-    private static void printErrorMessage(Element[] elements, String message, Object... args) {
+    private static void printErrorMessage(ProcessingContext context, Element[] elements, String message, Object... args) {
         for (Element element : elements) {
-            MainProcessor.messager.printMessage(
+            context.messager().printMessage(
                     Diagnostic.Kind.ERROR,
                     String.format(message, args),
                     element
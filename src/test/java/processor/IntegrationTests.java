@@ -2,14 +2,50 @@ package processor;
 
 import com.google.testing.compile.Compilation;
 import com.google.testing.compile.JavaFileObjects;
+import annotations.AutoBuilder;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 import static com.google.testing.compile.CompilationSubject.assertThat;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static com.google.testing.compile.Compiler.javac;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 
 public class IntegrationTests {
 
@@ -72,7 +108,7 @@ public class IntegrationTests {
                         ));
         assertThat(compilation).succeeded();
         String expectedGeneratedFile = """
-               public class TestBuilder {
+               public final class TestBuilder {
                  Test build() {
                    return new Test();
                  }
@@ -102,7 +138,7 @@ public class IntegrationTests {
                     import java.lang.String;
                     import java.util.Locale;
                             
-                    public class TestBuilder {
+                    public final class TestBuilder {
                       private boolean _bool;
                             
                       private String _string;
@@ -155,7 +191,7 @@ public class IntegrationTests {
                     import java.util.List;
                     import java.util.Map;
                     
-                    public class TestBuilder {
+                    public final class TestBuilder {
                       private List<Boolean> _list;
                     
                       private Map<String, Boolean> _map;
@@ -197,7 +233,7 @@ public class IntegrationTests {
         String expectedClass = """
                     import java.util.List;
                     
-                    public class TestBuilder<T> {
+                    public final class TestBuilder<T> {
                       private List<T> _list;
                     
                       public TestBuilder list(List<T> list) {
@@ -234,7 +270,7 @@ public class IntegrationTests {
                     import java.lang.Boolean;
                     import java.util.List;
                     
-                    public class TestBuilder<T extends Boolean> {
+                    public final class TestBuilder<T extends Boolean> {
                       private List<T> _list;
                     
                       public TestBuilder list(List<T> list) {
@@ -270,7 +306,7 @@ public class IntegrationTests {
         String expectedClass = """
                     import java.util.List;
                     
-                    public class TestBuilder<T extends List<?>> {
+                    public final class TestBuilder<T extends List<?>> {
                       private T _list;
                     
                       public TestBuilder list(T list) {
@@ -306,7 +342,7 @@ public class IntegrationTests {
         String expectedClass = """
                     import java.lang.Object;
                     
-                    public class TestBuilder {
+                    public final class TestBuilder {
                       private Object[] _args;
                     
                       public TestBuilder args(Object[] args) {
@@ -342,7 +378,7 @@ public class IntegrationTests {
         String expectedClass = """
                     import java.util.List;
                     
-                    public class TestBuilder<T> {
+                    public final class TestBuilder<T> {
                       private List<T>[] _args;
                     
                       public TestBuilder args(List<T>[] args) {
@@ -359,4 +395,1708 @@ public class IntegrationTests {
                 .orElseThrow().getCharContent(false).toString();
         assertThat(actualGeneratedFile, is(expectedClass));
     }
+
+    @Test
+    public void autoBuilder_TwoAnnotatedConstructors_Throws() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "class Test {",
+                                "   public @AutoBuilder Test(String string) {}",
+                                "   public @AutoBuilder Test(int number) {}",
+                                "}"
+                        ));
+        assertThat(compilation).hadErrorContainingMatch("Já existe um builder diferente gerado para TestBuilder");
+    }
+
+    @Test
+    public void autoBuilder_GradleIncrementalRegistration_IsDynamic() throws IOException {
+        var resource = MainProcessor.class.getClassLoader()
+                .getResourceAsStream("META-INF/gradle/incremental.annotation.processors");
+        String registration = new String(resource.readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(registration.trim(), is("processor.MainProcessor,dynamic"));
+    }
+
+    @Test
+    public void autoBuilder_GradleIncrementalMode_FollowsRegistryOption() {
+        var processor = new MainProcessor();
+        Compilation compilation =
+                javac()
+                        .withProcessors(processor)
+                        .withOptions("-Aautobuilder.registry=true")
+                        .compile(JavaFileObjects.forSourceLines(
+                                "p.Test",
+                                "package p;",
+                                "import annotations.AutoBuilder;",
+                                "class Test {",
+                                "   public @AutoBuilder Test(int value) {}",
+                                "}"
+                        ));
+        assertThat(compilation).succeeded();
+        assertThat(processor.getSupportedOptions().contains("org.gradle.annotation.processing.aggregating"), is(true));
+        assertThat(processor.getSupportedOptions().contains("org.gradle.annotation.processing.isolating"), is(false));
+    }
+
+    @Test
+    public void autoBuilder_ManyBuildersRenderedInParallel_Success() {
+        List<JavaFileObject> sources = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            sources.add(JavaFileObjects.forSourceLines(
+                    "Test" + i,
+                    "import annotations.AutoBuilder;",
+                    "class Test" + i + " {",
+                    "   public @AutoBuilder Test" + i + "(int value, String name) {}",
+                    "}"
+            ));
+        }
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .withOptions("-Aautobuilder.threads=4")
+                        .compile(sources);
+        assertThat(compilation).succeeded();
+        for (int i = 0; i < 100; i++) {
+            assertThat(compilation).generatedSourceFile("Test" + i + "Builder").contentsAsUtf8String()
+                    .contains("return new Test" + i + "(this._value,this._name);");
+        }
+    }
+
+    @Test
+    public void autoBuilder_InvalidThreadsOption_Warns() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .withOptions("-Aautobuilder.threads=zero")
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "class Test {",
+                                "   public @AutoBuilder Test() {}",
+                                "}"
+                        ));
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadWarningContaining("Valor inválido para -Aautobuilder.threads");
+    }
+
+    @Test
+    public void autoBuilder_StatsOption_PrintsSummaryNote() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .withOptions("-Aautobuilder.stats=true")
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "class Test {",
+                                "   public @AutoBuilder Test(String string) {}",
+                                "}"
+                        ));
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadNoteContainingMatch("AutoBuilder: \\d+ rodadas, 1 elementos, 1 builders escritos");
+    }
+
+    @Test
+    public void autoBuilder_StatsFileOption_WritesJsonReport(@TempDir Path directory) throws IOException {
+        var statsFile = directory.resolve("stats/autobuilder.json");
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .withOptions("-Aautobuilder.statsFile=" + statsFile)
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "class Test {",
+                                "   public @AutoBuilder Test(String string) {}",
+                                "   private @AutoBuilder Test(int number) {}",
+                                "}"
+                        ));
+        assertThat(compilation).failed();
+        String report = Files.readString(statsFile);
+        assertThat(report, containsString("\"rounds\": ["));
+        assertThat(report, containsString("\"total\": {\"round\": 0, \"annotatedElements\": 2, \"builders\": 1, \"skippedBuilders\": 0"));
+        assertThat(report, containsString("\"checkFailures\": 1}"));
+    }
+
+    @Test
+    public void autoBuilder_InlineReportOption_WritesSizesAndWarns(@TempDir Path directory) throws IOException {
+        var reportFile = directory.resolve("inline/report.json");
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .withOptions("-Aautobuilder.inlineReport=" + reportFile, "-Aautobuilder.freqInlineSize=20")
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "import annotations.Required;",
+                                "class Test {",
+                                "   public @AutoBuilder Test(@Required int first, String second) {}",
+                                "}"
+                        ));
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadWarningContaining(
+                "TestBuilder.build() tem cerca de 32 bytes de bytecode, acima do limite de inlining de 20 (-Aautobuilder.freqInlineSize)"
+        );
+        String report = Files.readString(reportFile);
+        assertThat(report, containsString(
+                "{\"builder\": \"TestBuilder\", \"methods\": [{\"method\": \"<init>()\", \"bytes\": 5, \"limit\": 20}, "
+                        + "{\"method\": \"first(int)\", \"bytes\": 19, \"limit\": 35}, "
+                        + "{\"method\": \"second(java.lang.String)\", \"bytes\": 7, \"limit\": 35}, "
+                        + "{\"method\": \"build()\", \"bytes\": 32, \"limit\": 20}]}"
+        ));
+    }
+
+    @Test
+    public void autoBuilder_Reusable_Success() throws IOException {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "class Test {",
+                                "   public @AutoBuilder(reusable = true) Test(long number, String string) {}",
+                                "}"
+                        ));
+        assertThat(compilation).succeeded();
+        String expectedClass = """
+                    import java.lang.ExceptionInInitializerError;
+                    import java.lang.ReflectiveOperationException;
+                    import java.lang.String;
+                    import java.lang.ThreadLocal;
+                    import java.lang.invoke.MethodHandles;
+                    import java.lang.invoke.VarHandle;
+                    import java.util.concurrent.atomic.AtomicReferenceArray;
+                    
+                    public final class TestBuilder {
+                      private static final int POOL_SIZE = 16;
+                    
+                      private static final ThreadLocal<TestBuilder> THREAD_LOCAL = ThreadLocal.withInitial(TestBuilder::new);
+                    
+                      private static final AtomicReferenceArray<TestBuilder> POOL = new AtomicReferenceArray<>(POOL_SIZE);
+                    
+                      private static final VarHandle POOLED;
+                    
+                      static {
+                        try {
+                          POOLED = MethodHandles.lookup().findVarHandle(TestBuilder.class, "pooled", boolean.class);
+                        } catch (ReflectiveOperationException exception) {
+                          throw new ExceptionInInitializerError(exception);
+                        }
+                      }
+                    
+                      private long _number;
+                    
+                      private String _string;
+                    
+                      private volatile boolean pooled;
+                    
+                      public TestBuilder number(long number) {
+                        this._number = number;
+                        return this;
+                      }
+                    
+                      public TestBuilder string(String string) {
+                        this._string = string;
+                        return this;
+                      }
+                    
+                      Test build() {
+                        return new Test(this._number,this._string);
+                      }
+                    
+                      public static TestBuilder threadLocal() {
+                        return THREAD_LOCAL.get().reset();
+                      }
+                    
+                      public static TestBuilder acquire() {
+                        int start = Thread.currentThread().hashCode();
+                        for (int i = 0; i < POOL_SIZE; i++) {
+                          int index = (start + i) & (POOL_SIZE - 1);
+                          TestBuilder builder = POOL.get(index);
+                          if (builder != null && POOL.compareAndSet(index, builder, null)) {
+                            builder.pooled = false;
+                            return builder;
+                          }
+                        }
+                        return new TestBuilder();
+                      }
+                    
+                      public void release() {
+                        if (!POOLED.compareAndSet(this, false, true)) {
+                          return;
+                        }
+                        reset();
+                        int start = Thread.currentThread().hashCode();
+                        for (int i = 0; i < POOL_SIZE; i++) {
+                          int index = (start + i) & (POOL_SIZE - 1);
+                          if (POOL.get(index) == null && POOL.compareAndSet(index, null, this)) {
+                            return;
+                          }
+                        }
+                        this.pooled = false;
+                      }
+                    
+                      public TestBuilder reset() {
+                        this._number = 0L;
+                        this._string = null;
+                        return this;
+                      }
+                    
+                      Test buildAndReset() {
+                        Test built = new Test(this._number,this._string);
+                        reset();
+                        return built;
+                      }
+                    }
+                    """;
+        String actualGeneratedFile =  compilation.generatedSourceFile("TestBuilder")
+                .orElseThrow().getCharContent(false).toString();
+        assertThat(actualGeneratedFile, is(expectedClass));
+    }
+
+    @Test
+    public void autoBuilder_ReusableReleasedTwice_IsPooledOnce() throws ReflectiveOperationException {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(
+                                JavaFileObjects.forSourceLines(
+                                        "Test",
+                                        "import annotations.AutoBuilder;",
+                                        "class Test {",
+                                        "   public @AutoBuilder(reusable = true) Test(long number) {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "Usage",
+                                        "public class Usage {",
+                                        "   public static boolean run() {",
+                                        "       TestBuilder builder = TestBuilder.acquire();",
+                                        "       builder.release();",
+                                        "       builder.release();",
+                                        "       TestBuilder first = TestBuilder.acquire();",
+                                        "       TestBuilder second = TestBuilder.acquire();",
+                                        "       first.release();",
+                                        "       TestBuilder third = TestBuilder.acquire();",
+                                        "       return first == builder && second != first && third == first;",
+                                        "   }",
+                                        "}"
+                                )
+                        );
+        assertThat(compilation).succeededWithoutWarnings();
+        assertThat(loadClass(compilation, "Usage").getMethod("run").invoke(null), is(true));
+    }
+
+    @Test
+    public void autoBuilder_WithersOnRecord_Success() throws IOException {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "record Test<T>(T value, boolean flag) {",
+                                "   public @AutoBuilder(withers = true) Test {}",
+                                "}"
+                        ));
+        assertThat(compilation).succeeded();
+        String expectedClass = """
+                    public final class TestBuilder<T> {
+                      private T _value;
+                    
+                      private boolean _flag;
+                    
+                      public TestBuilder value(T value) {
+                        this._value = value;
+                        return this;
+                      }
+                    
+                      public TestBuilder flag(boolean flag) {
+                        this._flag = flag;
+                        return this;
+                      }
+                    
+                      Test<T> build() {
+                        return new Test<T>(this._value,this._flag);
+                      }
+                    
+                      public static <T> Test<T> withValue(Test<T> source, T value) {
+                        return new Test<T>(value, source.flag());
+                      }
+                    
+                      public static <T> Test<T> withFlag(Test<T> source, boolean flag) {
+                        return new Test<T>(source.value(), flag);
+                      }
+                    
+                      public static <T> TestBuilder<T> toBuilder(Test<T> source) {
+                        TestBuilder<T> builder = new TestBuilder<T>();
+                        builder._value = source.value();
+                        builder._flag = source.flag();
+                        return builder;
+                      }
+                    }
+                    """;
+        String actualGeneratedFile =  compilation.generatedSourceFile("TestBuilder")
+                .orElseThrow().getCharContent(false).toString();
+        assertThat(actualGeneratedFile, is(expectedClass));
+    }
+
+    @Test
+    public void autoBuilder_WithersUseGetters_Success() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "class Test {",
+                                "   private final boolean active;",
+                                "   private final String name;",
+                                "   public @AutoBuilder(withers = true) Test(boolean active, String name) {",
+                                "       this.active = active;",
+                                "       this.name = name;",
+                                "   }",
+                                "   public boolean isActive() { return active; }",
+                                "   String getName() { return name; }",
+                                "}"
+                        ));
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile("TestBuilder").contentsAsUtf8String()
+                .contains("return new Test(active, source.getName());");
+        assertThat(compilation).generatedSourceFile("TestBuilder").contentsAsUtf8String()
+                .contains("builder._active = source.isActive();");
+    }
+
+    @Test
+    public void autoBuilder_WithersWithoutAccessor_Throws() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "class Test {",
+                                "   public @AutoBuilder(withers = true) Test(int number) {}",
+                                "}"
+                        ));
+        assertThat(compilation).hadErrorContainingMatch("Parâmetro number não possui acessor correspondente em Test");
+    }
+
+    @Test
+    public void autoBuilder_BatchBuilder_Success() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(
+                                JavaFileObjects.forSourceLines(
+                                        "Test",
+                                        "import annotations.AutoBuilder;",
+                                        "class Test {",
+                                        "   public @AutoBuilder(batch = true) Test(long id, boolean flag, String name) {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "Usage",
+                                        "import java.util.List;",
+                                        "class Usage {",
+                                        "   Test[] columns(long[] ids) {",
+                                        "       return new TestBatchBuilder().id(ids).name(i -> \"n\" + i).buildAll(ids.length);",
+                                        "   }",
+                                        "   List<Test> parallel(int n) {",
+                                        "       return List.of(new TestBatchBuilder().id(i -> i).buildAllParallel(n));",
+                                        "   }",
+                                        "}"
+                                )
+                        );
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile("TestBatchBuilder").contentsAsUtf8String()
+                .contains("built[i] = new Test(idColumn != null ? idColumn[i] : idFunction.applyAsLong(i), "
+                        + "flagColumn != null ? flagColumn[i] : false, "
+                        + "nameColumn != null ? nameColumn[i] : nameFunction.apply(i));");
+    }
+
+    @Test
+    public void autoBuilder_Flyweight_Success() throws IOException {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "class Test {",
+                                "   public @AutoBuilder(flyweight = true) Test(boolean active, long timestamp, int count) {}",
+                                "}"
+                        ));
+        assertThat(compilation).succeeded();
+        String expectedClass = """
+                    import java.lang.IndexOutOfBoundsException;
+                    import java.lang.Math;
+                    import java.nio.ByteBuffer;
+                    
+                    public final class TestFlyweight {
+                      public static final int SIZE = 16;
+                    
+                      private static final int TIMESTAMP_OFFSET = 0;
+                    
+                      private static final int COUNT_OFFSET = 8;
+                    
+                      private static final int ACTIVE_OFFSET = 12;
+                    
+                      private ByteBuffer buffer;
+                    
+                      private int offset;
+                    
+                      public TestFlyweight wrap(ByteBuffer buffer, int offset) {
+                        if (offset < 0 || offset > buffer.limit() - SIZE) {
+                          throw new IndexOutOfBoundsException("Offset fora do buffer: " + offset);
+                        }
+                        this.buffer = buffer;
+                        this.offset = offset;
+                        return this;
+                      }
+                    
+                      public TestFlyweight wrapIndex(ByteBuffer buffer, int index) {
+                        return wrap(buffer, Math.multiplyExact(index, SIZE));
+                      }
+                    
+                      public boolean active() {
+                        return this.buffer.get(this.offset + ACTIVE_OFFSET) != 0;
+                      }
+                    
+                      public TestFlyweight active(boolean active) {
+                        this.buffer.put(this.offset + ACTIVE_OFFSET, (byte) (active ? 1 : 0));
+                        return this;
+                      }
+                    
+                      public long timestamp() {
+                        return this.buffer.getLong(this.offset + TIMESTAMP_OFFSET);
+                      }
+                    
+                      public TestFlyweight timestamp(long timestamp) {
+                        this.buffer.putLong(this.offset + TIMESTAMP_OFFSET, timestamp);
+                        return this;
+                      }
+                    
+                      public int count() {
+                        return this.buffer.getInt(this.offset + COUNT_OFFSET);
+                      }
+                    
+                      public TestFlyweight count(int count) {
+                        this.buffer.putInt(this.offset + COUNT_OFFSET, count);
+                        return this;
+                      }
+                    
+                      public Test materialize() {
+                        return new Test(active(), timestamp(), count());
+                      }
+                    }
+                    """;
+        String actualGeneratedFile =  compilation.generatedSourceFile("TestFlyweight")
+                .orElseThrow().getCharContent(false).toString();
+        assertThat(actualGeneratedFile, is(expectedClass));
+    }
+
+    @Test
+    public void autoBuilder_FlyweightWithReferenceParameter_Throws() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "class Test {",
+                                "   public @AutoBuilder(flyweight = true) Test(int count, String name) {}",
+                                "}"
+                        ));
+        assertThat(compilation).hadErrorContainingMatch("Flyweight exige parâmetros primitivos, mas name é java.lang.String");
+    }
+
+    @Test
+    public void autoBuilder_FlyweightWithShadowingNames_RoundTrips() throws ReflectiveOperationException {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(
+                                JavaFileObjects.forSourceLines(
+                                        "Test",
+                                        "import annotations.AutoBuilder;",
+                                        "record Test(int offset, long buffer, short fooBar, short foo_bar) {",
+                                        "   public @AutoBuilder(flyweight = true) Test {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "Usage",
+                                        "import java.nio.ByteBuffer;",
+                                        "public class Usage {",
+                                        "   public static String run() {",
+                                        "       ByteBuffer bytes = ByteBuffer.allocate(TestFlyweight.SIZE * 2);",
+                                        "       TestFlyweight flyweight = new TestFlyweight().wrapIndex(bytes, 1);",
+                                        "       flyweight.offset(5).buffer(7L).fooBar((short) 1).foo_bar((short) 2);",
+                                        "       return flyweight.materialize() + \" \" + bytes.getInt(5) + \" \" + flyweight.offset();",
+                                        "   }",
+                                        "}"
+                                )
+                        );
+        assertThat(compilation).succeededWithoutWarnings();
+        assertThat(compilation).generatedSourceFile("TestFlyweight")
+                .contentsAsUtf8String()
+                .contains("private static final int FOO_BAR_OFFSET_3 = 14;");
+        var result = loadClass(compilation, "Usage").getMethod("run").invoke(null);
+        assertThat(result, is("Test[offset=5, buffer=7, fooBar=1, foo_bar=2] 0 5"));
+    }
+
+    @Test
+    public void autoBuilder_FlyweightWithReservedName_Throws() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "class Test {",
+                                "   public @AutoBuilder(flyweight = true) Test(int count, long materialize) {}",
+                                "}"
+                        ));
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("Flyweight não aceita o parâmetro materialize, que conflita com um método gerado");
+    }
+
+    @Test
+    public void autoBuilder_Codec_Success() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(
+                                JavaFileObjects.forSourceLines(
+                                        "Point",
+                                        "import annotations.AutoBuilder;",
+                                        "record Point(int x, int y) {",
+                                        "   public @AutoBuilder(codec = true) Point {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "Test",
+                                        "import annotations.AutoBuilder;",
+                                        "record Test(long id, String name, Integer count, Kind kind, Point origin) {",
+                                        "   enum Kind { A, B }",
+                                        "   public @AutoBuilder(codec = true) Test {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "Usage",
+                                        "import java.io.DataInputStream;",
+                                        "import java.io.IOException;",
+                                        "import java.nio.ByteBuffer;",
+                                        "class Usage {",
+                                        "   Test roundTrip(Test test, ByteBuffer buffer) {",
+                                        "       TestCodec.write(test, buffer);",
+                                        "       return TestCodec.read(buffer.flip());",
+                                        "   }",
+                                        "   Test read(DataInputStream in) throws IOException {",
+                                        "       return TestCodec.read(in);",
+                                        "   }",
+                                        "}"
+                                )
+                        );
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile("TestCodec").contentsAsUtf8String()
+                .contains("Integer _count = in.get() == 0 ? null : Integer.valueOf((int) readVarLong(in));");
+        assertThat(compilation).generatedSourceFile("TestCodec").contentsAsUtf8String()
+                .contains("Test.Kind _kind = _kindOrdinal == 0 ? null : TEST_KIND_VALUES[_kindOrdinal - 1];");
+        assertThat(compilation).generatedSourceFile("TestCodec").contentsAsUtf8String()
+                .contains("Point _origin = in.get() == 0 ? null : PointCodec.read(in);");
+    }
+
+    @Test
+    public void autoBuilder_CodecUnderTurkishLocale_KeepsConstantNames() {
+        var locale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            Compilation compilation =
+                    javac()
+                            .withProcessors(new MainProcessor())
+                            .compile(JavaFileObjects.forSourceLines(
+                                    "Item",
+                                    "import annotations.AutoBuilder;",
+                                    "record Item(Priority priority) {",
+                                    "   enum Priority { LOW, HIGH }",
+                                    "   public @AutoBuilder(codec = true) Item {}",
+                                    "}"
+                            ));
+            assertThat(compilation).succeeded();
+            assertThat(compilation).generatedSourceFile("ItemCodec").contentsAsUtf8String()
+                    .contains("private static final Item.Priority[] ITEM_PRIORITY_VALUES = Item.Priority.values();");
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    @Test
+    public void autoBuilder_CodecWithUnsupportedParameter_Throws() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "import java.util.List;",
+                                "record Test(int count, List<String> names) {",
+                                "   public @AutoBuilder(codec = true) Test {}",
+                                "}"
+                        ));
+        assertThat(compilation).hadErrorContainingMatch("Codec não suporta o parâmetro names do tipo java.util.List<java.lang.String>");
+    }
+
+    @Test
+    public void autoBuilder_Required_Success() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "import annotations.Required;",
+                                "class Test {",
+                                "   public @AutoBuilder Test(@Required String name, int age, @Required long id) {}",
+                                "}"
+                        ));
+        assertThat(compilation).succeeded();
+        var generatedFile = assertThat(compilation).generatedSourceFile("TestBuilder").contentsAsUtf8String();
+        generatedFile.contains("private static final long REQUIRED_MASK_0 = (1L << 2) - 1;");
+        generatedFile.contains("""
+                  public TestBuilder id(long id) {
+                    this._id = id;
+                    this.setMask0 |= 1L << 1;
+                    return this;
+                  }
+                """);
+        generatedFile.contains("""
+                  Test build() {
+                    if (this.setMask0 != REQUIRED_MASK_0) {
+                      throw missingParameters();
+                    }
+                    return new Test(this._name,this._age,this._id);
+                  }
+                """);
+        generatedFile.contains("return new IllegalStateException(\"Par\\u00e2metros obrigat\\u00f3rios n\\u00e3o informados: \" + missing);");
+    }
+
+    @Test
+    public void autoBuilder_AllRequiredAboveSixtyFourParameters_Success() {
+        List<String> parameters = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            parameters.add("int p" + i);
+        }
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "class Test {",
+                                "   public @AutoBuilder(allRequired = true) Test(" + String.join(", ", parameters) + ") {}",
+                                "}"
+                        ));
+        assertThat(compilation).succeeded();
+        var generatedFile = assertThat(compilation).generatedSourceFile("TestBuilder").contentsAsUtf8String();
+        generatedFile.contains("private static final long REQUIRED_MASK_0 = -1L;");
+        generatedFile.contains("private static final long REQUIRED_MASK_1 = (1L << 6) - 1;");
+        generatedFile.contains("if (((this.setMask0 ^ REQUIRED_MASK_0) | (this.setMask1 ^ REQUIRED_MASK_1)) != 0) {");
+        generatedFile.contains("this.setMask1 |= 1L << 5;");
+    }
+
+    @Test
+    public void autoBuilder_Default_Success() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "import annotations.Default;",
+                                "class Test {",
+                                "   static final long TIMEOUT = 5000L;",
+                                "   enum Mode { FAST, SAFE }",
+                                "   public @AutoBuilder(reusable = true) Test(",
+                                "           @Default(\"30\") int retries,",
+                                "           @Default(\"SAFE\") Mode mode,",
+                                "           @Default(constant = \"TIMEOUT\") long timeout,",
+                                "           String host",
+                                "   ) {}",
+                                "}"
+                        ));
+        assertThat(compilation).succeeded();
+        var generatedFile = assertThat(compilation).generatedSourceFile("TestBuilder").contentsAsUtf8String();
+        generatedFile.contains("""
+                  private int _retries = 30;
+                
+                  private Test.Mode _mode = Test.Mode.SAFE;
+                
+                  private long _timeout = Test.TIMEOUT;
+                
+                  private String _host;
+                """);
+        generatedFile.contains("""
+                  Test build() {
+                    return new Test(this._retries,this._mode,this._timeout,this._host);
+                  }
+                """);
+        generatedFile.contains("""
+                    this._retries = 30;
+                    this._mode = Test.Mode.SAFE;
+                    this._timeout = Test.TIMEOUT;
+                    this._host = null;
+                """);
+    }
+
+    @Test
+    public void autoBuilder_DefaultWithInvalidValue_Throws() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "import annotations.Default;",
+                                "import annotations.Required;",
+                                "class Test {",
+                                "   public @AutoBuilder Test(@Default(\"trinta\") int retries, @Required @Default(\"x\") String name) {}",
+                                "}"
+                        ));
+        assertThat(compilation).hadErrorContainingMatch("Valor padrão 'trinta' inválido para o parâmetro retries do tipo int");
+        assertThat(compilation).hadErrorContainingMatch("Parâmetro name não pode ser @Required e ter @Default");
+    }
+
+    @Test
+    public void autoBuilder_Interned_Success() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(
+                                JavaFileObjects.forSourceLines(
+                                        "Test",
+                                        "import annotations.AutoBuilder;",
+                                        "record Test(String currency, int venue, double price) {",
+                                        "   public @AutoBuilder(interned = true, internCapacity = 100) Test {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "Usage",
+                                        "class Usage {",
+                                        "   Test canonical() {",
+                                        "       return new TestBuilder().currency(\"EUR\").venue(1).buildInterned();",
+                                        "   }",
+                                        "   String stats() {",
+                                        "       return TestInterner.hits() + \"/\" + TestInterner.misses() + \"/\" + TestInterner.size() + \"/\" + TestInterner.capacity();",
+                                        "   }",
+                                        "}"
+                                )
+                        );
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile("TestBuilder").contentsAsUtf8String()
+                .contains("return TestInterner.intern(this._currency,this._venue,this._price);");
+        var generatedInterner = assertThat(compilation).generatedSourceFile("TestInterner").contentsAsUtf8String();
+        generatedInterner.contains("private static final int SETS = 32;");
+        generatedInterner.contains("""
+                    return Objects.equals(candidate.currency(), _currency)
+                        && candidate.venue() == _venue
+                        && Double.doubleToLongBits(candidate.price()) == Double.doubleToLongBits(_price);
+                """);
+    }
+
+    @Test
+    public void autoBuilder_InternedWithInvalidCapacity_Throws() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "record Test(int venue) {",
+                                "   public @AutoBuilder(interned = true, internCapacity = 0) Test {}",
+                                "}"
+                        ));
+        assertThat(compilation).hadErrorContainingMatch("internCapacity deve estar entre 1 e 1073741824, mas é 0");
+    }
+
+    @Test
+    public void autoBuilder_EmitBytecode_Success() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .withOptions("-Aautobuilder.emit=bytecode")
+                        .compile(
+                                JavaFileObjects.forSourceLines(
+                                        "Test",
+                                        "import annotations.AutoBuilder;",
+                                        "import java.util.List;",
+                                        "class Test<T extends Comparable<T>, U> {",
+                                        "   public @AutoBuilder Test(T key, List<U> values, long id, double weight, String... tags) {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "Usage",
+                                        "import java.util.List;",
+                                        "class Usage {",
+                                        "   Test<String, Integer> build() {",
+                                        "       TestBuilder<String, Integer> builder = new TestBuilder<>();",
+                                        "       builder.key(\"k\");",
+                                        "       builder.values(List.of(1));",
+                                        "       builder.id(1L);",
+                                        "       builder.weight(2.0);",
+                                        "       builder.tags(new String[]{\"a\", \"b\"});",
+                                        "       return builder.build();",
+                                        "   }",
+                                        "}"
+                                )
+                        );
+        assertThat(compilation).succeededWithoutWarnings();
+        assertThat(compilation).generatedFile(StandardLocation.CLASS_OUTPUT, "", "TestBuilder.class");
+        assertThat(compilation.generatedSourceFile("TestBuilder").isPresent(), is(false));
+    }
+
+    @Test
+    public void autoBuilder_EmitBytecodeWithFeatures_FallsBackToSource() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .withOptions("-Aautobuilder.emit=bytecode")
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "class Test {",
+                                "   public @AutoBuilder(reusable = true) Test(int count) {}",
+                                "}"
+                        ));
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadNoteContainingMatch("TestBuilder gerado como código-fonte");
+        assertThat(compilation).generatedSourceFile("TestBuilder");
+    }
+
+    @Test
+    public void autoBuilder_CompiledTwice_ProducesIdenticalOutputs() throws IOException {
+        List<JavaFileObject> sources = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            sources.add(JavaFileObjects.forSourceLines(
+                    "Test" + i,
+                    "import annotations.AutoBuilder;",
+                    "record Test" + i + "(int value, String name, Kind kind) {",
+                    "   enum Kind { A, B }",
+                    "   public @AutoBuilder(batch = true, codec = true, interned = true) Test" + i + " {}",
+                    "}"
+            ));
+        }
+        List<JavaFileObject> reversedSources = new ArrayList<>(sources);
+        Collections.reverse(reversedSources);
+
+        var first = generatedFiles(javac()
+                .withProcessors(new MainProcessor())
+                .withOptions("-Aautobuilder.threads=4")
+                .compile(sources));
+        var second = generatedFiles(javac()
+                .withProcessors(new MainProcessor())
+                .withOptions("-Aautobuilder.threads=4")
+                .compile(reversedSources));
+
+        assertThat(first.size(), is(second.size()));
+        for (var entry : first.entrySet()) {
+            assertThat(entry.getKey(), new String(second.get(entry.getKey()), StandardCharsets.ISO_8859_1), is(new String(entry.getValue(), StandardCharsets.ISO_8859_1)));
+        }
+    }
+
+    @Test
+    public void autoBuilder_Diagnostics_SortedByQualifiedName() {
+        List<JavaFileObject> sources = new ArrayList<>();
+        for (String name : List.of("Charlie", "Alpha", "Bravo")) {
+            sources.add(JavaFileObjects.forSourceLines(
+                    name,
+                    "import annotations.AutoBuilder;",
+                    "class " + name + " {",
+                    "   @AutoBuilder " + name + "(int value) {}",
+                    "}"
+            ));
+        }
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(sources);
+        var sourcesWithErrors = compilation.errors()
+                .stream()
+                .map(diagnostic -> diagnostic.getSource().getName())
+                .collect(Collectors.toList());
+        assertThat(sourcesWithErrors, is(List.of("Alpha.java", "Bravo.java", "Charlie.java")));
+    }
+
+    private static Map<String, byte[]> generatedFiles(Compilation compilation) throws IOException {
+        assertThat(compilation).succeeded();
+        Map<String, byte[]> files = new TreeMap<>();
+        for (JavaFileObject file : compilation.generatedFiles()) {
+            try (InputStream input = file.openInputStream()) {
+                files.put(file.toUri().toString(), input.readAllBytes());
+            }
+        }
+        return files;
+    }
+
+    @Test
+    public void autoBuilder_Registry_Success() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .withOptions("-Aautobuilder.registry=true", "-Aautobuilder.registryPackage=app.registry")
+                        .compile(
+                                JavaFileObjects.forSourceLines(
+                                        "p.Pessoa",
+                                        "package p;",
+                                        "import annotations.AutoBuilder;",
+                                        "public class Pessoa {",
+                                        "   public @AutoBuilder Pessoa(String nome, int idade) {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "q.Caixa",
+                                        "package q;",
+                                        "import annotations.AutoBuilder;",
+                                        "public class Caixa<T> {",
+                                        "   public @AutoBuilder Caixa(T valor) {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "p.Usage",
+                                        "package p;",
+                                        "import app.registry.AutoBuilders;",
+                                        "import java.util.function.Supplier;",
+                                        "class Usage {",
+                                        "   Object build() {",
+                                        "       PessoaBuilder builder = (PessoaBuilder) AutoBuilders.builderFor(Pessoa.class);",
+                                        "       Supplier<?> factory = AutoBuilders.factoryFor(q.Caixa.class);",
+                                        "       return AutoBuilders.hasBuilder(String.class) ? factory.get() : builder.nome(\"a\").build();",
+                                        "   }",
+                                        "}"
+                                )
+                        );
+        assertThat(compilation).succeededWithoutWarnings();
+        assertThat(compilation)
+                .generatedSourceFile("app.registry.AutoBuilders")
+                .contentsAsUtf8String()
+                .contains("case \"q.Caixa\": return new CaixaBuilder<>();");
+    }
+
+    @Test
+    public void autoBuilder_RegistryNativeImage_WritesReflectConfig() throws IOException {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .withOptions("-Aautobuilder.registry=true", "-Aautobuilder.nativeImage=true")
+                        .compile(JavaFileObjects.forSourceLines(
+                                "p.Test",
+                                "package p;",
+                                "import annotations.AutoBuilder;",
+                                "class Test {",
+                                "   public @AutoBuilder Test(int value) {}",
+                                "}"
+                        ));
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile("autobuilder.AutoBuilders");
+        var reflectConfig = compilation
+                .generatedFile(StandardLocation.CLASS_OUTPUT, "META-INF/native-image/autobuilder/autobuilder/reflect-config.json")
+                .orElseThrow();
+        assertThat(reflectConfig.getCharContent(true).toString(), is("[\n  {\"name\": \"p.TestBuilder\", \"allPublicConstructors\": true, \"allPublicMethods\": true}\n]\n"));
+    }
+
+    @Test
+    public void autoBuilder_Concurrent_Success() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(
+                                JavaFileObjects.forSourceLines(
+                                        "Test",
+                                        "import annotations.AutoBuilder;",
+                                        "import java.util.List;",
+                                        "class Test<T> {",
+                                        "   public @AutoBuilder(concurrent = true) Test(String userName, long id, List<T> items) {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "Usage",
+                                        "import java.util.List;",
+                                        "class Usage {",
+                                        "   Test<Integer> assemble() {",
+                                        "       TestConcurrentBuilder<Integer> builder = new TestConcurrentBuilder<>();",
+                                        "       builder.onComplete(test -> System.out.println(test));",
+                                        "       builder.userName(\"a\");",
+                                        "       builder.id(1L);",
+                                        "       builder.items(List.of(1));",
+                                        "       return builder.tryBuild();",
+                                        "   }",
+                                        "}"
+                                )
+                        );
+        assertThat(compilation).succeededWithoutWarnings();
+        var generated = assertThat(compilation).generatedSourceFile("TestConcurrentBuilder").contentsAsUtf8String();
+        generated.contains("private static final long COMPLETE_MASK = 7L;");
+        generated.contains("USER_NAME_HANDLE = lookup.findVarHandle(TestConcurrentBuilder.class, \"_userName\", String.class);");
+        generated.contains("""
+                  public TestConcurrentBuilder<T> id(long id) {
+                    if (((long) CLAIMED.getAndBitwiseOr(this, 2L) & 2L) != 0) {
+                      throw new IllegalStateException("Par\\u00e2metro id informado mais de uma vez");
+                    }
+                    ID_HANDLE.setRelease(this, id);
+                    if (((long) READY.getAndBitwiseOr(this, 2L) | 2L) == COMPLETE_MASK) {
+                      complete();
+                    }
+                    return this;
+                  }
+                """);
+    }
+
+    @Test
+    public void autoBuilder_ConcurrentDuplicateAndRacingContributions_KeepFirstValue() throws ReflectiveOperationException {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(
+                                JavaFileObjects.forSourceLines(
+                                        "Fan",
+                                        "import annotations.AutoBuilder;",
+                                        "record Fan(int a, String b, long c, int fooBar, int foo_bar) {",
+                                        "   public @AutoBuilder(concurrent = true) Fan {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "Usage",
+                                        "import java.util.concurrent.CountDownLatch;",
+                                        "import java.util.concurrent.atomic.AtomicInteger;",
+                                        "public class Usage {",
+                                        "   public static String duplicate() {",
+                                        "       FanConcurrentBuilder builder = new FanConcurrentBuilder().a(1);",
+                                        "       String message = null;",
+                                        "       try {",
+                                        "           builder.a(2);",
+                                        "       } catch (IllegalStateException exception) {",
+                                        "           message = exception.getMessage();",
+                                        "       }",
+                                        "       builder.b(\"x\").c(3L).fooBar(4).foo_bar(5);",
+                                        "       return message + \" \" + builder.tryBuild();",
+                                        "   }",
+                                        "   public static boolean race() throws InterruptedException {",
+                                        "       for (int round = 0; round < 200; round++) {",
+                                        "           FanConcurrentBuilder builder = new FanConcurrentBuilder().b(\"x\").c(3L).fooBar(4).foo_bar(5);",
+                                        "           AtomicInteger winner = new AtomicInteger(-1);",
+                                        "           CountDownLatch start = new CountDownLatch(1);",
+                                        "           Thread[] threads = new Thread[4];",
+                                        "           for (int i = 0; i < threads.length; i++) {",
+                                        "               int value = i;",
+                                        "               threads[i] = new Thread(() -> {",
+                                        "                   try {",
+                                        "                       start.await();",
+                                        "                       builder.a(value);",
+                                        "                       if (!winner.compareAndSet(-1, value)) {",
+                                        "                           throw new AssertionError();",
+                                        "                       }",
+                                        "                   } catch (IllegalStateException | InterruptedException ignored) {",
+                                        "                   }",
+                                        "               });",
+                                        "               threads[i].start();",
+                                        "           }",
+                                        "           start.countDown();",
+                                        "           for (Thread thread : threads) {",
+                                        "               thread.join();",
+                                        "           }",
+                                        "           if (builder.tryBuild() == null || builder.tryBuild().a() != winner.get()) {",
+                                        "               return false;",
+                                        "           }",
+                                        "       }",
+                                        "       return true;",
+                                        "   }",
+                                        "}"
+                                )
+                        );
+        assertThat(compilation).succeededWithoutWarnings();
+        assertThat(compilation).generatedSourceFile("FanConcurrentBuilder")
+                .contentsAsUtf8String()
+                .contains("private static final VarHandle FOO_BAR_HANDLE_4;");
+        var usage = loadClass(compilation, "Usage");
+        assertThat(usage.getMethod("duplicate").invoke(null), is("Parâmetro a informado mais de uma vez Fan[a=1, b=x, c=3, fooBar=4, foo_bar=5]"));
+        assertThat(usage.getMethod("race").invoke(null), is(true));
+    }
+
+    @Test
+    public void autoBuilder_ConcurrentWithThrowingConstructor_ReportsFailure() throws ReflectiveOperationException {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(
+                                JavaFileObjects.forSourceLines(
+                                        "Fan",
+                                        "import annotations.AutoBuilder;",
+                                        "record Fan(int a, String b) {",
+                                        "   public @AutoBuilder(concurrent = true) Fan {",
+                                        "       if (a < 0) {",
+                                        "           throw new IllegalArgumentException(\"negativo\");",
+                                        "       }",
+                                        "   }",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "Usage",
+                                        "import java.util.ArrayList;",
+                                        "import java.util.List;",
+                                        "public class Usage {",
+                                        "   public static String run() {",
+                                        "       List<String> seen = new ArrayList<>();",
+                                        "       FanConcurrentBuilder builder = new FanConcurrentBuilder()",
+                                        "               .onComplete(fan -> seen.add(\"built\"), failure -> seen.add(\"early \" + failure.getMessage()));",
+                                        "       builder.a(-1);",
+                                        "       try {",
+                                        "           builder.b(\"x\");",
+                                        "       } catch (IllegalArgumentException exception) {",
+                                        "           seen.add(\"thrown \" + exception.getMessage());",
+                                        "       }",
+                                        "       builder.onComplete(fan -> seen.add(\"built\"), failure -> seen.add(\"late \" + failure.getMessage()));",
+                                        "       try {",
+                                        "           builder.tryBuild();",
+                                        "       } catch (IllegalStateException exception) {",
+                                        "           seen.add(exception.getMessage() + \": \" + exception.getCause().getMessage());",
+                                        "       }",
+                                        "       return String.join(\", \", seen);",
+                                        "   }",
+                                        "}"
+                                )
+                        );
+        assertThat(compilation).succeededWithoutWarnings();
+        assertThat(
+                loadClass(compilation, "Usage").getMethod("run").invoke(null),
+                is("early negativo, thrown negativo, late negativo, Falha ao construir Fan: negativo")
+        );
+    }
+
+    @Test
+    public void autoBuilder_ConcurrentWithoutParameters_Throws() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "class Test {",
+                                "   public @AutoBuilder(concurrent = true) Test() {}",
+                                "}"
+                        ));
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("ConcurrentBuilder exige entre 1 e 64 parâmetros, mas há 0");
+    }
+
+    @Test
+    public void autoBuilder_Async_Success() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(
+                                JavaFileObjects.forSourceLines(
+                                        "Test",
+                                        "import annotations.AutoBuilder;",
+                                        "import java.util.List;",
+                                        "class Test<T> {",
+                                        "   public @AutoBuilder(async = true) Test(String name, int count, List<T> items) {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "Usage",
+                                        "import java.util.List;",
+                                        "import java.util.concurrent.CompletableFuture;",
+                                        "class Usage {",
+                                        "   CompletableFuture<Test<Integer>> assemble(CompletableFuture<String> name) {",
+                                        "       TestAsyncBuilder<Integer> builder = new TestAsyncBuilder<>();",
+                                        "       builder.name(name);",
+                                        "       builder.count(CompletableFuture.supplyAsync(() -> 1));",
+                                        "       builder.items(List.of(1));",
+                                        "       return builder.buildAsync();",
+                                        "   }",
+                                        "}"
+                                )
+                        );
+        assertThat(compilation).succeededWithoutWarnings();
+        var generated = assertThat(compilation).generatedSourceFile("TestAsyncBuilder").contentsAsUtf8String();
+        generated.contains("public TestAsyncBuilder<T> count(CompletionStage<? extends Integer> count) {");
+        generated.contains("""
+                        _countStage.whenComplete((value, failure) -> {
+                          if (failure != null) {
+                            fail(failure);
+                          } else if (value == null) {
+                            fail(new NullPointerException("count"));
+                          } else {
+                            _count = value;
+                            arrived();
+                          }
+                        });
+                """);
+        generated.contains("""
+                      if (_nameStage instanceof Future) {
+                        ((Future<?>) _nameStage).cancel(true);
+                      }
+                """);
+    }
+
+    @Test
+    public void autoBuilder_AsyncWithMissingRequired_FailsFuture() throws ReflectiveOperationException {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(
+                                JavaFileObjects.forSourceLines(
+                                        "Test",
+                                        "import annotations.AutoBuilder;",
+                                        "import annotations.Required;",
+                                        "record Test(@Required String name, @Required long id, int count) {",
+                                        "   public @AutoBuilder(async = true) Test {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "Usage",
+                                        "import java.util.concurrent.CompletableFuture;",
+                                        "import java.util.concurrent.ExecutionException;",
+                                        "public class Usage {",
+                                        "   public static String run() throws InterruptedException, ExecutionException {",
+                                        "       CompletableFuture<Test> missing = new TestAsyncBuilder().id(CompletableFuture.completedFuture(1L)).buildAsync();",
+                                        "       String failure;",
+                                        "       try {",
+                                        "           missing.get();",
+                                        "           failure = \"none\";",
+                                        "       } catch (ExecutionException exception) {",
+                                        "           failure = exception.getCause().getMessage();",
+                                        "       }",
+                                        "       Test built = new TestAsyncBuilder().name(\"a\").id(CompletableFuture.completedFuture(2L)).buildAsync().get();",
+                                        "       return failure + \" / \" + built;",
+                                        "   }",
+                                        "}"
+                                )
+                        );
+        assertThat(compilation).succeededWithoutWarnings();
+        assertThat(
+                loadClass(compilation, "Usage").getMethod("run").invoke(null),
+                is("Parâmetros obrigatórios não informados: name / Test[name=a, id=2, count=0]")
+        );
+    }
+
+    @Test
+    public void autoBuilder_AsyncWithCompletionStageParameter_Throws() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "import java.util.concurrent.CompletionStage;",
+                                "class Test {",
+                                "   public @AutoBuilder(async = true) Test(CompletionStage<String> name) {}",
+                                "}"
+                        ));
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("AsyncBuilder não suporta o parâmetro name do tipo java.util.concurrent.CompletionStage<java.lang.String>");
+    }
+
+    @Test
+    public void autoBuilder_JmhOption_GeneratesBenchmark() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .withOptions("-Aautobuilder.jmh=true")
+                        .compile(
+                                JavaFileObjects.forSourceLines(
+                                        "p.Test",
+                                        "package p;",
+                                        "import annotations.AutoBuilder;",
+                                        "import annotations.Default;",
+                                        "class Test {",
+                                        "   public @AutoBuilder Test(String name, @Default(\"3\") int count, Long id) {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "p.Generic",
+                                        "package p;",
+                                        "import annotations.AutoBuilder;",
+                                        "class Generic<T> {",
+                                        "   public @AutoBuilder Generic(T value) {}",
+                                        "}"
+                                )
+                        );
+        assertThat(compilation).succeeded();
+        assertThat(compilation).hadNoteContainingMatch("GenericBuilder não terá benchmark JMH");
+        assertThat(compilation.generatedSourceFile("p.GenericBuilderBenchmark").isPresent(), is(false));
+        var generated = assertThat(compilation).generatedSourceFile("p.TestBuilderBenchmark").contentsAsUtf8String();
+        generated.contains("""
+                  private String name = "name";
+
+                  private int count = 3;
+
+                  private Long id = 0L;
+                """);
+        generated.contains("return new TestBuilder().name(this.name).count(this.count).id(this.id).build();");
+        generated.contains("return new Test(this.name, this.count, this.id);");
+        generated.contains("new Runner(new OptionsBuilder().include(TestBuilderBenchmark.class.getName()).addProfiler(GCProfiler.class).build()).run();");
+    }
+
+    @Test
+    public void autoBuilder_Lazy_Success() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(
+                                JavaFileObjects.forSourceLines(
+                                        "Test",
+                                        "import annotations.AutoBuilder;",
+                                        "class Test {",
+                                        "   public @AutoBuilder(lazy = true) Test(String pattern, int flags) {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "Usage",
+                                        "import java.util.function.Supplier;",
+                                        "class Usage {",
+                                        "   Supplier<Test> rule(TestBuilder builder) {",
+                                        "       return builder.pattern(\"a+\").flags(2).buildLazy();",
+                                        "   }",
+                                        "}"
+                                )
+                        );
+        assertThat(compilation).succeededWithoutWarnings();
+        assertThat(compilation).generatedSourceFile("TestBuilder").contentsAsUtf8String().contains("""
+                  private static final class Lazy implements Supplier<Test> {
+                    private final ReentrantLock lock = new ReentrantLock();
+
+                    private volatile Test value;
+
+                    private String _pattern;
+
+                    private int _flags;
+
+                    Lazy(String _pattern, int _flags) {
+                      this._pattern = _pattern;
+                      this._flags = _flags;
+                    }
+
+                    @Override
+                    public Test get() {
+                      Test result = this.value;
+                      return result != null ? result : initialize();
+                    }
+
+                    private Test initialize() {
+                      this.lock.lock();
+                      try {
+                        Test result = this.value;
+                        if (result == null) {
+                          result = new Test(this._pattern,this._flags);
+                          this.value = result;
+                          this._pattern = null;
+                        }
+                        return result;
+                      } finally {
+                        this.lock.unlock();
+                      }
+                    }
+                  }
+                """);
+    }
+
+    @Test
+    public void autoBuilder_Accumulators_Success() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(
+                                JavaFileObjects.forSourceLines(
+                                        "Test",
+                                        "import annotations.AutoBuilder;",
+                                        "import java.util.List;",
+                                        "class Test {",
+                                        "   public @AutoBuilder(accumulators = true) Test(int[] samples, List<Long> ids, String name) {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "Usage",
+                                        "class Usage {",
+                                        "   Test series() {",
+                                        "       return new TestBuilder().samplesCapacity(3).addSamples(1).addAllSamples(2, 3).addIds(7L).name(\"a\").build();",
+                                        "   }",
+                                        "}"
+                                )
+                        );
+        assertThat(compilation).succeededWithoutWarnings();
+        assertThat(compilation).generatedSourceFile("TestBuilder").contentsAsUtf8String().contains("""
+                  private int[] accumulatedSamples() {
+                    int[] buffer = this._samplesBuffer;
+                    if (buffer == null) {
+                      return this._samples;
+                    }
+                    if (buffer.length != this._samplesCount) {
+                      buffer = Arrays.copyOf(buffer, this._samplesCount);
+                    }
+                    this._samplesBuffer = null;
+                    this._samples = buffer;
+                    return this._samples;
+                  }
+                """);
+        assertThat(compilation).generatedSourceFile("TestBuilder").contentsAsUtf8String().contains(
+                "return new Test(accumulatedSamples(),accumulatedIds(),this._name);"
+        );
+        assertThat(compilation).generatedSourceFile("TestBuilder").contentsAsUtf8String().contains(
+                "private static final class LongListView extends AbstractList<Long> implements RandomAccess {"
+        );
+    }
+
+    @Test
+    public void autoBuilder_JsonReader_Success() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(
+                                JavaFileObjects.forSourceLines(
+                                        "Point",
+                                        "import annotations.AutoBuilder;",
+                                        "class Point {",
+                                        "   public @AutoBuilder(json = true) Point(int x, int y) {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "Test",
+                                        "import annotations.AutoBuilder;",
+                                        "class Test {",
+                                        "   enum Kind { A, B }",
+                                        "   public @AutoBuilder(json = true) Test(long id, Double ratio, String name, Kind kind, Point origin) {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "Usage",
+                                        "import java.io.IOException;",
+                                        "import java.io.Reader;",
+                                        "class Usage {",
+                                        "   Test read(byte[] bytes) {",
+                                        "       return TestJsonReader.read(bytes);",
+                                        "   }",
+                                        "   Test read(Reader reader) throws IOException {",
+                                        "       return TestJsonReader.read(reader);",
+                                        "   }",
+                                        "}"
+                                )
+                        );
+        assertThat(compilation).succeededWithoutWarnings();
+        assertThat(compilation).generatedSourceFile("TestJsonReader").contentsAsUtf8String().contains("""
+                        switch (lexer.nextName()) {
+                          case "id":
+                            builder.id(lexer.nextLong(Long.MIN_VALUE, Long.MAX_VALUE));
+                            break;
+                          case "ratio":
+                            builder.ratio(lexer.nextNull() ? null : lexer.nextDouble());
+                            break;
+                          case "name":
+                            builder.name(lexer.nextNull() ? null : lexer.nextString());
+                            break;
+                          case "kind":
+                            builder.kind(lexer.nextNull() ? null : Test.Kind.valueOf(lexer.nextString()));
+                            break;
+                          case "origin":
+                            builder.origin(lexer.nextNull() ? null : PointJsonReader.read(new PointJsonReader.Lexer(lexer.bytes(), lexer.chars(), lexer.reader())));
+                            break;
+                          default:
+                            lexer.skipValue();
+                        }
+                """);
+    }
+
+    @Test
+    public void autoBuilder_JsonReaderWithUnsupportedParameter_Throws() {
+        Compilation compilation =
+                javac()
+                        .withProcessors(new MainProcessor())
+                        .compile(JavaFileObjects.forSourceLines(
+                                "Test",
+                                "import annotations.AutoBuilder;",
+                                "import java.util.List;",
+                                "record Test(int count, List<String> names) {",
+                                "   public @AutoBuilder(json = true) Test {}",
+                                "}"
+                        ));
+        assertThat(compilation).hadErrorContainingMatch("JsonReader não suporta o parâmetro names do tipo java.util.List<java.lang.String>");
+    }
+
+    @Test
+    public void autoBuilder_ConcurrentCompilations_AreIsolated() throws Exception {
+        var compilations = 32;
+        List<Callable<Compilation>> tasks = new ArrayList<>();
+        for (int i = 0; i < compilations; i++) {
+            var index = i;
+            tasks.add(() -> {
+                List<JavaFileObject> sources = new ArrayList<>();
+                for (int j = 0; j < 20; j++) {
+                    sources.add(JavaFileObjects.forSourceLines(
+                            "p" + index + ".Test" + j,
+                            "package p" + index + ";",
+                            "import annotations.AutoBuilder;",
+                            "class Test" + j + " {",
+                            "   public @AutoBuilder Test" + j + "(int value, String name) {}",
+                            "}"
+                    ));
+                }
+                if (index % 2 == 1) {
+                    sources.add(JavaFileObjects.forSourceLines(
+                            "p" + index + ".Bad",
+                            "package p" + index + ";",
+                            "import annotations.AutoBuilder;",
+                            "class Bad {",
+                            "   @AutoBuilder Bad(int value) {}",
+                            "}"
+                    ));
+                }
+                return javac()
+                        .withProcessors(new MainProcessor())
+                        .withOptions("-Aautobuilder.threads=2", "-Aautobuilder.registry=true", "-Aautobuilder.registryPackage=p" + index + ".registry")
+                        .compile(sources);
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            var futures = executor.invokeAll(tasks);
+            for (int i = 0; i < compilations; i++) {
+                Compilation compilation = futures.get(i).get();
+                if (i % 2 == 1) {
+                    assertThat(compilation).failed();
+                    assertThat(compilation).hadErrorCount(1);
+                    assertThat(compilation).hadErrorContainingMatch("Construtor anotado com @AutoBuilder deve ser público");
+                    assertThat(compilation.errors().get(0).getSource().getName(), containsString("p" + i + "/Bad.java"));
+                    continue;
+                }
+                assertThat(compilation).succeededWithoutWarnings();
+                for (int j = 0; j < 20; j++) {
+                    assertThat(compilation).generatedSourceFile("p" + i + ".Test" + j + "Builder");
+                }
+                assertThat(compilation).generatedSourceFile("p" + i + ".registry.AutoBuilders")
+                        .contentsAsUtf8String()
+                        .doesNotContain("p" + (i + 1) + ".");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void autoBuilder_BuilderData_HoldsNoCompilerElements() throws IllegalAccessException {
+        List<BuilderData> extracted = new ArrayList<>();
+        var extractor = new AbstractProcessor() {
+            private ProcessingContext context;
+
+            @Override
+            public synchronized void init(ProcessingEnvironment environment) {
+                super.init(environment);
+                context = ProcessingContext.of(environment);
+            }
+
+            @Override
+            public Set<String> getSupportedAnnotationTypes() {
+                return Set.of(AutoBuilder.class.getCanonicalName());
+            }
+
+            @Override
+            public SourceVersion getSupportedSourceVersion() {
+                return SourceVersion.latestSupported();
+            }
+
+            @Override
+            public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment environment) {
+                environment.getElementsAnnotatedWith(AutoBuilder.class)
+                        .forEach(element -> AutoBuildProcessor.mapToBuilderData(context, element).ifPresent(extracted::add));
+                context.endRound();
+                return false;
+            }
+        };
+        Compilation compilation =
+                javac()
+                        .withProcessors(extractor)
+                        .compile(
+                                JavaFileObjects.forSourceLines(
+                                        "First",
+                                        "import annotations.AutoBuilder;",
+                                        "import annotations.Default;",
+                                        "record First<T extends Comparable<T>>(String name, @Default(\"3\") int limit, Second origin) {",
+                                        "   public @AutoBuilder(codec = true) First {}",
+                                        "}"
+                                ),
+                                JavaFileObjects.forSourceLines(
+                                        "Second",
+                                        "import annotations.AutoBuilder;",
+                                        "record Second(String name, long id) {",
+                                        "   public @AutoBuilder(codec = true) Second {}",
+                                        "}"
+                                )
+                        );
+        assertThat(compilation).succeeded();
+        assertThat(extracted.size(), is(2));
+        var reachable = reachableObjects(extracted);
+        assertThat(reachable.stream().filter(object -> object instanceof Element || object instanceof TypeMirror).count(), is(0L));
+        assertThat(extracted.get(0).properties().get(0).type(), sameInstance(extracted.get(1).properties().get(0).type()));
+    }
+
+    private static Class<?> loadClass(Compilation compilation, String name) throws ClassNotFoundException {
+        var classLoader = new ClassLoader(IntegrationTests.class.getClassLoader()) {
+            @Override
+            protected Class<?> findClass(String className) throws ClassNotFoundException {
+                var path = "/" + className.replace('.', '/') + ".class";
+                for (JavaFileObject file : compilation.generatedFiles()) {
+                    if (file.getKind() == JavaFileObject.Kind.CLASS && file.toUri().getPath().endsWith(path)) {
+                        try (InputStream input = file.openInputStream()) {
+                            var bytes = input.readAllBytes();
+                            return defineClass(className, bytes, 0, bytes.length);
+                        } catch (IOException exception) {
+                            throw new ClassNotFoundException(className, exception);
+                        }
+                    }
+                }
+                throw new ClassNotFoundException(className);
+            }
+        };
+        return classLoader.loadClass(name);
+    }
+
+    private static Set<Object> reachableObjects(Object root) throws IllegalAccessException {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> pending = new ArrayDeque<>(List.of(root));
+        while (!pending.isEmpty()) {
+            var object = pending.pop();
+            if (!visited.add(object)) {
+                continue;
+            }
+            var type = object.getClass();
+            if (object instanceof Object[] array) {
+                Collections.addAll(pending, Arrays.stream(array).filter(Objects::nonNull).toArray());
+            } else if (object instanceof Collection<?> collection) {
+                collection.stream().filter(Objects::nonNull).forEach(pending::push);
+            } else if (object instanceof Map<?, ?> map) {
+                map.forEach((key, value) -> {
+                    pending.push(key);
+                    if (value != null) {
+                        pending.push(value);
+                    }
+                });
+            } else if (!type.getModule().isNamed()) {
+                for (Class<?> current = type; current != null && !current.getModule().isNamed(); current = current.getSuperclass()) {
+                    for (Field field : current.getDeclaredFields()) {
+                        if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                            continue;
+                        }
+                        field.setAccessible(true);
+                        var value = field.get(object);
+                        if (value != null) {
+                            pending.push(value);
+                        }
+                    }
+                }
+            }
+        }
+        return visited;
+    }
 }